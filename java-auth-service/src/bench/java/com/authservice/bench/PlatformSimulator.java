@@ -0,0 +1,317 @@
+package com.authservice.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the X and Instagram Graph APIs, for load-testing publishing without
+ * touching the real platforms.
+ *
+ * Serves the endpoints the publishers call (/2/tweets, /1.1/media/upload.json, /{version}/me/accounts,
+ * /{version}/{id}/media and /{version}/{id}/media_publish) plus a test image under /media/, with
+ * configurable latency, 5xx error rate, throttling and rate-limit headers (see SimulatorSettings).
+ * Request counts per endpoint and status are served as JSON from /__stats.
+ *
+ * Standalone: mvn -Pbench test-compile exec:java -Dexec.mainClass=com.authservice.bench.PlatformSimulator
+ * then point the app at it with publishing.endpoints.{x-api-url,x-upload-url,graph-url}=http://localhost:8089
+ */
+@Slf4j
+public class PlatformSimulator {
+
+    private static final Pattern GRAPH_PATH = Pattern.compile("/v[0-9.]+/(?:(me/accounts)|([^/]+)/(media|media_publish))");
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final SimulatorSettings settings;
+    private final AtomicLong ids = new AtomicLong(1_000_000);
+    private final Map<String, RateWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> processingChecks = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final byte[] image;
+
+    private HttpServer server;
+
+    public PlatformSimulator(SimulatorSettings settings) {
+        this.settings = settings;
+        this.image = new byte[Math.max(PNG_SIGNATURE.length, settings.getDownloadBytes())];
+        System.arraycopy(PNG_SIGNATURE, 0, image, 0, PNG_SIGNATURE.length);
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimulatorSettings settings = SimulatorSettings.fromSystemProperties();
+        PlatformSimulator simulator = new PlatformSimulator(settings);
+        simulator.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop));
+    }
+
+    /**
+     * Start listening on the configured port (0 for an ephemeral one)
+     * @return Base URL of the simulator
+     */
+    public String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.getPort()), 4096);
+        // Simulated latency is a sleep, so every request gets its own virtual thread
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Platform simulator listening on {} (latency {}, error rate {}, throttle rate {})",
+                getBaseUrl(), settings.getLatency(), settings.getErrorRate(), settings.getThrottleRate());
+        return getBaseUrl();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            log.info("Platform simulator stopped, requests served: {}", getRequestCounts());
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Requests served so far by "endpoint status"
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requestCounts.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = readBody(exchange.getRequestBody());
+            String path = exchange.getRequestURI().getPath();
+
+            if (path.equals("/__stats")) {
+                respond(exchange, "stats", 200, toJson(getRequestCounts()));
+                return;
+            }
+            if (path.startsWith("/media/")) {
+                simulateLatency("download");
+                exchange.getResponseHeaders().set("Content-Type", "image/png");
+                respond(exchange, "download", 200, image);
+                return;
+            }
+            if (path.equals("/2/tweets")) {
+                handleX(exchange, "tweets", () -> new Reply(201,
+                        "{\"data\":{\"id\":\"" + ids.incrementAndGet() + "\",\"text\":\"\"}}"));
+                return;
+            }
+            if (path.equals("/1.1/media/upload.json")) {
+                Map<String, String> params = parseParams(exchange.getRequestURI().getRawQuery());
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+                    params.putAll(parseParams(new String(body, StandardCharsets.UTF_8)));
+                }
+                handleX(exchange, "media-upload", () -> mediaUpload(params));
+                return;
+            }
+
+            Matcher graph = GRAPH_PATH.matcher(path);
+            if (graph.matches()) {
+                if (graph.group(1) != null) {
+                    handleGraph(exchange, "accounts", () -> new Reply(200,
+                            "{\"data\":[{\"id\":\"1\",\"instagram_business_account\":{\"id\":\"17841400000000001\"}}]}"));
+                } else {
+                    String endpoint = graph.group(3).equals("media") ? "media" : "media-publish";
+                    handleGraph(exchange, endpoint, () -> new Reply(200, "{\"id\":\"" + ids.incrementAndGet() + "\"}"));
+                }
+                return;
+            }
+
+            respond(exchange, "unknown", 404, "{\"error\":\"Unknown endpoint " + path + "\"}");
+        } catch (Exception e) {
+            log.warn("Simulator failed to handle {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    private void handleX(HttpExchange exchange, String endpoint, ReplySupplier reply) throws Exception {
+        simulateLatency(endpoint);
+        RateWindow window = windows.computeIfAbsent("x:" + endpoint, key -> new RateWindow(settings.getXRateLimit()));
+        boolean allowed = window.tryAcquire(settings.getRateLimitWindowSeconds());
+
+        exchange.getResponseHeaders().set("x-rate-limit-limit", String.valueOf(window.limit));
+        exchange.getResponseHeaders().set("x-rate-limit-remaining", String.valueOf(window.remaining()));
+        exchange.getResponseHeaders().set("x-rate-limit-reset", String.valueOf(window.resetEpochSeconds()));
+
+        if (!allowed || chance(settings.getThrottleRate())) {
+            respond(exchange, endpoint, 429, "{\"title\":\"Too Many Requests\",\"status\":429}");
+        } else if (chance(settings.getErrorRate())) {
+            respond(exchange, endpoint, 503, "{\"title\":\"Service Unavailable\",\"status\":503}");
+        } else {
+            Reply result = reply.get();
+            respond(exchange, endpoint, result.status(), result.body());
+        }
+    }
+
+    private void handleGraph(HttpExchange exchange, String endpoint, ReplySupplier reply) throws Exception {
+        simulateLatency(endpoint);
+        RateWindow window = windows.computeIfAbsent("graph", key -> new RateWindow(settings.getGraphRateLimit()));
+        boolean allowed = window.tryAcquire(settings.getRateLimitWindowSeconds());
+
+        long usedPercent = Math.min(100, 100L * (window.limit - window.remaining()) / Math.max(1, window.limit));
+        exchange.getResponseHeaders().set("x-app-usage",
+                "{\"call_count\":" + usedPercent + ",\"total_cputime\":" + usedPercent / 2 + ",\"total_time\":" + usedPercent / 2 + "}");
+
+        if (!allowed || chance(settings.getThrottleRate())) {
+            respond(exchange, endpoint, 400, "{\"error\":{\"message\":\"Application request limit reached\","
+                    + "\"type\":\"OAuthException\",\"code\":4}}");
+        } else if (chance(settings.getErrorRate())) {
+            respond(exchange, endpoint, 503, "{\"error\":{\"message\":\"Service temporarily unavailable\","
+                    + "\"type\":\"OAuthException\",\"code\":2}}");
+        } else {
+            Reply result = reply.get();
+            respond(exchange, endpoint, result.status(), result.body());
+        }
+    }
+
+    private Reply mediaUpload(Map<String, String> params) {
+        String command = params.getOrDefault("command", "");
+        String mediaId = params.get("media_id");
+        return switch (command) {
+            case "INIT" -> {
+                String id = String.valueOf(ids.incrementAndGet());
+                yield new Reply(202, "{\"media_id\":" + id + ",\"media_id_string\":\"" + id + "\"}");
+            }
+            case "APPEND" -> new Reply(204, "");
+            case "FINALIZE" -> {
+                if (settings.getMediaProcessingChecks() <= 0) {
+                    yield new Reply(201, "{\"media_id_string\":\"" + mediaId + "\"}");
+                }
+                processingChecks.put(mediaId, new AtomicInteger(settings.getMediaProcessingChecks()));
+                yield new Reply(201, "{\"media_id_string\":\"" + mediaId + "\","
+                        + "\"processing_info\":{\"state\":\"pending\",\"check_after_secs\":1}}");
+            }
+            case "STATUS" -> {
+                AtomicInteger remaining = processingChecks.get(mediaId);
+                boolean done = remaining == null || remaining.decrementAndGet() <= 0;
+                if (done) {
+                    processingChecks.remove(mediaId);
+                }
+                yield new Reply(200, "{\"media_id_string\":\"" + mediaId + "\",\"processing_info\":{\"state\":\""
+                        + (done ? "succeeded" : "in_progress") + "\",\"check_after_secs\":1}}");
+            }
+            default -> new Reply(400, "{\"errors\":[{\"message\":\"Unknown command " + command + "\"}]}");
+        };
+    }
+
+    private void simulateLatency(String endpoint) throws InterruptedException {
+        long delayMs = settings.latencyFor(endpoint).sampleMs();
+        if (delayMs > 0) {
+            Thread.sleep(delayMs);
+        }
+    }
+
+    private void respond(HttpExchange exchange, String endpoint, int status, String body) throws IOException {
+        if (exchange.getResponseHeaders().getFirst("Content-Type") == null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        respond(exchange, endpoint, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void respond(HttpExchange exchange, String endpoint, int status, byte[] body) throws IOException {
+        requestCounts.computeIfAbsent(endpoint + " " + status, key -> new LongAdder()).increment();
+        boolean empty = body.length == 0 || status == 204;
+        exchange.sendResponseHeaders(status, empty ? -1 : body.length);
+        if (!empty) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static boolean chance(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Map<String, String> parseParams(String encoded) {
+        Map<String, String> params = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String toJson(Map<String, Long> counts) {
+        StringBuilder json = new StringBuilder("{");
+        counts.forEach((key, count) -> json.append(json.length() > 1 ? "," : "")
+                .append('"').append(key).append("\":").append(count));
+        return json.append('}').toString();
+    }
+
+    private record Reply(int status, String body) {
+    }
+
+    @FunctionalInterface
+    private interface ReplySupplier {
+        Reply get() throws Exception;
+    }
+
+    /**
+     * Fixed window of calls, reset every rate-limit-window-seconds
+     */
+    private static final class RateWindow {
+
+        private final int limit;
+        private int used;
+        private long resetEpochSeconds;
+
+        private RateWindow(int limit) {
+            this.limit = limit;
+        }
+
+        private synchronized boolean tryAcquire(long windowSeconds) {
+            long now = System.currentTimeMillis() / 1000;
+            if (now >= resetEpochSeconds) {
+                used = 0;
+                resetEpochSeconds = now + windowSeconds;
+            }
+            if (used >= limit) {
+                return false;
+            }
+            used++;
+            return true;
+        }
+
+        private synchronized int remaining() {
+            return Math.max(0, limit - used);
+        }
+
+        private synchronized long resetEpochSeconds() {
+            return resetEpochSeconds;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.authservice.bench;
+
+import com.authservice.AuthServiceApplication;
+import com.authservice.dto.BulkScheduledPostResponse;
+import com.authservice.dto.CreateScheduledPostRequest;
+import com.authservice.entity.Profile;
+import com.authservice.entity.User;
+import com.authservice.enums.PlatformType;
+import com.authservice.enums.PostStatus;
+import com.authservice.event.ScheduledPostStatusEvent;
+import com.authservice.repository.ProfileRepository;
+import com.authservice.repository.UserRepository;
+import com.authservice.service.ScheduledPostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end publish benchmark: schedules N posts against an embedded H2 database, lets the
+ * scheduler fire them against the PlatformSimulator and reports
+ * - fire lag: scheduled time to claim (PROCESSING)
+ * - publish latency: claim to PUBLISHED / FAILED, and scheduled time to done
+ * - throughput: posts done per second between the first claim and the last completion
+ *
+ * mvn -Pbench test-compile exec:java -Dbench.posts=2000 -Dsim.latency=lognormal:40:400
+ *
+ * bench.posts (1000), bench.accounts (20), bench.platforms (x,instagram), bench.image (true),
+ * bench.lead-seconds (15), bench.spread-seconds (0: all due at once), bench.timeout-seconds (600).
+ * Any other -D property reaches the app, e.g. -Dscheduler.dispatch.mode=database or
+ * -Dpublishing.engine=reactive; sim.* properties configure the simulator. Results are printed and
+ * written as JSON to target/bench/.
+ */
+@Slf4j
+public class PublishThroughputBenchmark {
+
+    private final int posts = Integer.getInteger("bench.posts", 1000);
+    private final int accounts = Integer.getInteger("bench.accounts", 20);
+    private final List<String> platforms = Arrays.asList(System.getProperty("bench.platforms", "x,instagram").split(","));
+    private final boolean withImage = Boolean.parseBoolean(System.getProperty("bench.image", "true"));
+    private final long leadSeconds = Long.getLong("bench.lead-seconds", 15);
+    private final long spreadSeconds = Long.getLong("bench.spread-seconds", 0);
+    private final long timeoutSeconds = Long.getLong("bench.timeout-seconds", 600);
+
+    private final Map<Long, Long> scheduledAtMs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> claimedAtMs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> doneAtMs = new ConcurrentHashMap<>();
+    private final Map<Long, PostStatus> outcomes = new ConcurrentHashMap<>();
+    private final CountDownLatch done = new CountDownLatch(posts);
+
+    public static void main(String[] args) throws Exception {
+        new PublishThroughputBenchmark().run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        SimulatorSettings simulatorSettings = SimulatorSettings.fromSystemProperties();
+        simulatorSettings.setPort(Integer.getInteger("sim.port", 0));
+        PlatformSimulator simulator = new PlatformSimulator(simulatorSettings);
+        String simulatorUrl = simulator.start();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("bench")
+                .properties(
+                        "publishing.endpoints.x-api-url=" + simulatorUrl,
+                        "publishing.endpoints.x-upload-url=" + simulatorUrl,
+                        "publishing.endpoints.graph-url=" + simulatorUrl)
+                .listeners(new StatusRecorder())
+                .run(args);
+
+        try {
+            List<Long> userIds = seedAccounts(context);
+            long firstDueMs = schedulePosts(context, userIds, simulatorUrl);
+            log.info("Scheduled {} posts on {} accounts to {}, first due in {} s",
+                    posts, accounts, platforms, (firstDueMs - System.currentTimeMillis()) / 1000);
+
+            boolean finished = done.await(leadSeconds + spreadSeconds + timeoutSeconds, TimeUnit.SECONDS);
+            if (!finished) {
+                log.warn("Timed out with {} of {} posts finished", posts - done.getCount(), posts);
+            }
+            report(simulator.getRequestCounts());
+        } finally {
+            context.close();
+            simulator.stop();
+        }
+    }
+
+    private List<Long> seedAccounts(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProfileRepository profileRepository = context.getBean(ProfileRepository.class);
+
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < accounts; i++) {
+            User user = new User();
+            user.setName("Bench user " + i);
+            user.setEmail("bench-" + i + "@example.com");
+            user.setCreatedAt(LocalDateTime.now());
+            user = userRepository.save(user);
+            userIds.add(user.getId());
+
+            for (String platform : platforms) {
+                Profile profile = new Profile();
+                profile.setUser(user);
+                profile.setPlatform(PlatformType.valueOf(platform.toUpperCase()));
+                profile.setUsername("bench_" + platform + "_" + i);
+                // X tokens are stored as "accessToken:accessSecret"
+                profile.setAccessToken("bench-token-" + i + ("x".equals(platform) ? ":bench-secret-" + i : ""));
+                profileRepository.save(profile);
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Schedule the posts round-robin over the accounts, through the bulk path the API uses
+     * @return Epoch ms the first post is due
+     */
+    private long schedulePosts(ConfigurableApplicationContext context, List<Long> userIds, String simulatorUrl) {
+        ScheduledPostService scheduledPostService = context.getBean(ScheduledPostService.class);
+        LocalDateTime firstDue = LocalDateTime.now().plusSeconds(leadSeconds);
+
+        Map<Long, List<CreateScheduledPostRequest>> requestsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < posts; i++) {
+            LocalDateTime due = firstDue.plusNanos(spreadSeconds * 1_000_000_000L * i / posts);
+            CreateScheduledPostRequest request = new CreateScheduledPostRequest(
+                    "Benchmark post " + i, platforms, due,
+                    withImage ? simulatorUrl + "/media/bench-" + (i % 10) + ".png" : null);
+            requestsByUser.computeIfAbsent(userIds.get(i % userIds.size()), id -> new ArrayList<>()).add(request);
+        }
+
+        requestsByUser.forEach((userId, requests) -> {
+            BulkScheduledPostResponse response = scheduledPostService.createScheduledPostsBulk(userId, requests);
+            for (BulkScheduledPostResponse.ItemResult result : response.getResults()) {
+                if (result.getId() != null) {
+                    scheduledAtMs.put(result.getId(), toEpochMs(requests.get(result.getIndex()).getScheduledTime()));
+                } else {
+                    log.warn("Post rejected: {}", result.getError());
+                    done.countDown();
+                }
+            }
+        });
+        return toEpochMs(firstDue);
+    }
+
+    private void report(Map<String, Long> simulatorCounts) throws IOException {
+        List<Long> fireLag = new ArrayList<>();
+        List<Long> publishLatency = new ArrayList<>();
+        List<Long> endToEnd = new ArrayList<>();
+        long firstClaim = Long.MAX_VALUE;
+        long lastDone = Long.MIN_VALUE;
+
+        for (Map.Entry<Long, Long> entry : doneAtMs.entrySet()) {
+            Long scheduledAt = scheduledAtMs.get(entry.getKey());
+            Long claimedAt = claimedAtMs.get(entry.getKey());
+            if (scheduledAt == null || claimedAt == null) {
+                continue;
+            }
+            fireLag.add(Math.max(0, claimedAt - scheduledAt));
+            publishLatency.add(entry.getValue() - claimedAt);
+            endToEnd.add(Math.max(0, entry.getValue() - scheduledAt));
+            firstClaim = Math.min(firstClaim, claimedAt);
+            lastDone = Math.max(lastDone, entry.getValue());
+        }
+
+        long published = outcomes.values().stream().filter(status -> status == PostStatus.PUBLISHED).count();
+        long failed = outcomes.values().stream().filter(status -> status == PostStatus.FAILED).count();
+        double elapsedSeconds = lastDone > firstClaim ? (lastDone - firstClaim) / 1000.0 : 0;
+        double throughput = elapsedSeconds > 0 ? doneAtMs.size() / elapsedSeconds : 0;
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("posts", posts);
+        results.put("accounts", accounts);
+        results.put("platforms", String.join(",", platforms));
+        results.put("published", published);
+        results.put("failed", failed);
+        results.put("unfinished", posts - published - failed);
+        results.put("elapsedSeconds", elapsedSeconds);
+        results.put("throughputPostsPerSecond", throughput);
+        results.put("fireLagMs", percentiles(fireLag));
+        results.put("publishLatencyMs", percentiles(publishLatency));
+        results.put("endToEndLatencyMs", percentiles(endToEnd));
+        results.put("simulatorRequests", simulatorCounts);
+
+        StringBuilder summary = new StringBuilder("\n=== Publish throughput benchmark ===\n");
+        results.forEach((key, value) -> summary.append(String.format("%-26s %s%n", key, value)));
+        System.out.println(summary);
+
+        Path output = Path.of("target", "bench", "publish-throughput-" + System.currentTimeMillis() + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, new ObjectMapper()
+                .writerWithDefaultPrettyPrinter().writeValueAsString(results));
+        log.info("Results written to {}", output.toAbsolutePath());
+    }
+
+    private static Map<String, Long> percentiles(List<Long> values) {
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        if (values.isEmpty()) {
+            return percentiles;
+        }
+        Collections.sort(values);
+        percentiles.put("p50", percentile(values, 0.50));
+        percentiles.put("p95", percentile(values, 0.95));
+        percentiles.put("p99", percentile(values, 0.99));
+        percentiles.put("max", values.get(values.size() - 1));
+        return percentiles;
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Records claim and completion times from the status events the app publishes for SSE
+     */
+    private class StatusRecorder implements ApplicationListener<ApplicationEvent> {
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            if (!(event instanceof PayloadApplicationEvent<?> payloadEvent)
+                    || !(payloadEvent.getPayload() instanceof ScheduledPostStatusEvent statusEvent)) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Long id = statusEvent.getScheduledPostId();
+            switch (statusEvent.getStatus()) {
+                case PROCESSING -> claimedAtMs.putIfAbsent(id, now);
+                case PUBLISHED, FAILED -> {
+                    if (outcomes.putIfAbsent(id, statusEvent.getStatus()) == null) {
+                        doneAtMs.put(id, now);
+                        done.countDown();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.authservice.bench;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Behaviour of the PlatformSimulator, read from sim.* system properties
+ *
+ * -Dsim.latency=lognormal:40:400          median and p99 in ms, or fixed:20 / uniform:10:50
+ * -Dsim.latency.media-upload=fixed:80     per endpoint: tweets, media-upload, media, media-publish, accounts, download
+ * -Dsim.error-rate=0.01                   share of calls answered with 503
+ * -Dsim.throttle-rate=0.005               share of calls throttled regardless of the windows
+ * -Dsim.x.rate-limit=300                  X calls per endpoint per window, reported in x-rate-limit-* headers
+ * -Dsim.graph.rate-limit=200              Graph calls per window, reported as x-app-usage call_count
+ */
+@Data
+public class SimulatorSettings {
+
+    private int port = 8089;
+    private LatencyDistribution latency = LatencyDistribution.parse("lognormal:40:400");
+    private Map<String, LatencyDistribution> endpointLatency = new HashMap<>();
+    private double errorRate;
+    private double throttleRate;
+    private int xRateLimit = 100_000;
+    private int graphRateLimit = 100_000;
+    private long rateLimitWindowSeconds = 900;
+    private int mediaProcessingChecks;          // STATUS polls before media processing succeeds, 0 for none
+    private int downloadBytes = 64 * 1024;      // Size of the image served under /media/
+
+    public static SimulatorSettings fromSystemProperties() {
+        SimulatorSettings settings = new SimulatorSettings();
+        settings.setPort(Integer.getInteger("sim.port", settings.getPort()));
+        String latency = System.getProperty("sim.latency");
+        if (latency != null) {
+            settings.setLatency(LatencyDistribution.parse(latency));
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("sim.latency.")) {
+                settings.getEndpointLatency().put(name.substring("sim.latency.".length()),
+                        LatencyDistribution.parse(System.getProperty(name)));
+            }
+        }
+        settings.setErrorRate(Double.parseDouble(System.getProperty("sim.error-rate", "0")));
+        settings.setThrottleRate(Double.parseDouble(System.getProperty("sim.throttle-rate", "0")));
+        settings.setXRateLimit(Integer.getInteger("sim.x.rate-limit", settings.getXRateLimit()));
+        settings.setGraphRateLimit(Integer.getInteger("sim.graph.rate-limit", settings.getGraphRateLimit()));
+        settings.setRateLimitWindowSeconds(Long.getLong("sim.rate-limit-window-seconds", settings.getRateLimitWindowSeconds()));
+        settings.setMediaProcessingChecks(Integer.getInteger("sim.media.processing-checks", 0));
+        settings.setDownloadBytes(Integer.getInteger("sim.download-bytes", settings.getDownloadBytes()));
+        return settings;
+    }
+
+    public LatencyDistribution latencyFor(String endpoint) {
+        return endpointLatency.getOrDefault(endpoint, latency);
+    }
+
+    /**
+     * Response time distribution in milliseconds
+     */
+    public record LatencyDistribution(String kind, double first, double second) {
+
+        // z-score of the 99th percentile of the standard normal distribution
+        private static final double Z_99 = 2.326;
+
+        public static LatencyDistribution parse(String spec) {
+            String[] parts = spec.split(":");
+            return switch (parts[0]) {
+                case "fixed" -> new LatencyDistribution("fixed", Double.parseDouble(parts[1]), 0);
+                case "uniform", "lognormal" -> new LatencyDistribution(parts[0],
+                        Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        }
+
+        public long sampleMs() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (kind) {
+                case "fixed" -> (long) first;
+                case "uniform" -> (long) (first + random.nextDouble() * (second - first));
+                default -> {
+                    // first = median, second = p99
+                    double sigma = Math.log(second / first) / Z_99;
+                    yield (long) Math.exp(Math.log(first) + sigma * random.nextGaussian());
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return kind.equals("fixed") ? "fixed:" + (long) first : kind + ":" + (long) first + ":" + (long) second;
+        }
+    }
+}
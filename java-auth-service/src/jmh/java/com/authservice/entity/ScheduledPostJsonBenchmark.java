@@ -0,0 +1,55 @@
+package com.authservice.entity;
+
+import com.authservice.enums.PostStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON columns of ScheduledPost, parsed on every access
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScheduledPostJsonBenchmark {
+
+    private static final List<String> PLATFORMS = List.of("x", "instagram");
+
+    private ScheduledPost scheduledPost;
+
+    @Setup
+    public void setUp() {
+        scheduledPost = new ScheduledPost();
+        scheduledPost.setPlatforms(PLATFORMS);
+
+        PlatformAttempt published = new PlatformAttempt("x");
+        published.recordSuccess("1790000000000000000");
+        PlatformAttempt failed = new PlatformAttempt("instagram");
+        failed.recordFailure("Failed to post to instagram: 503 Service Unavailable");
+        scheduledPost.setPlatformAttempts(List.of(published, failed));
+        scheduledPost.setStatus(PostStatus.PENDING);
+    }
+
+    @Benchmark
+    public List<String> getPlatforms() {
+        return scheduledPost.getPlatforms();
+    }
+
+    @Benchmark
+    public String setPlatforms() {
+        scheduledPost.setPlatforms(PLATFORMS);
+        return scheduledPost.getPlatformsJson();
+    }
+
+    @Benchmark
+    public List<PlatformAttempt> getPlatformAttempts() {
+        return scheduledPost.getPlatformAttempts();
+    }
+}
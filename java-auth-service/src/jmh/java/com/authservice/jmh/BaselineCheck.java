@@ -0,0 +1,71 @@
+package com.authservice.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result against the committed baseline (src/jmh/baseline.json) and fails
+ * if any benchmark got slower than the allowed regression.
+ *
+ * Usage: BaselineCheck &lt;result.json&gt; &lt;baseline.json&gt; &lt;max-regression, e.g. 0.20&gt;
+ *
+ * The baseline is a JMH result file: after an intended change, refresh it by copying
+ * target/jmh/jmh-result.json over it from a run on the reference machine.
+ */
+public class BaselineCheck {
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> results = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[1])));
+        double maxRegression = Double.parseDouble(args[2]);
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode reference = baseline.get(entry.getKey());
+            double score = current.path("primaryMetric").path("score").asDouble();
+            String unit = current.path("primaryMetric").path("scoreUnit").asText();
+
+            if (reference == null) {
+                System.out.printf("NEW        %-70s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double referenceScore = reference.path("primaryMetric").path("score").asDouble();
+            // Time per operation: higher is worse; throughput: lower is worse
+            boolean lowerIsBetter = !"thrpt".equals(current.path("mode").asText());
+            double change = (score - referenceScore) / referenceScore;
+            double regression = lowerIsBetter ? change : -change;
+
+            boolean regressed = regression > maxRegression;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-70s %12.3f %s (baseline %.3f, %+.1f%%)%n",
+                    regressed ? "REGRESSED" : "OK", entry.getKey(), score, unit, referenceScore, change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, maxRegression * 100);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Results by benchmark name and parameters
+     */
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byName.put(key.toString(), run);
+        }
+        return byName;
+    }
+}
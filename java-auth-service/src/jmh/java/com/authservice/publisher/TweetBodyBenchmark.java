@@ -0,0 +1,41 @@
+package com.authservice.publisher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body built for every tweet published
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TweetBodyBenchmark {
+
+    private static final String CONTENT = "Benchmark post with a realistic amount of text #jmh https://example.com/launch";
+
+    private XPublisher publisher;
+
+    @Setup
+    public void setUp() {
+        // Building the body touches none of the publisher's collaborators
+        publisher = new XPublisher(null, null, null, null);
+    }
+
+    @Benchmark
+    public String textOnly() throws Exception {
+        return publisher.buildTweetBody(CONTENT, List.of());
+    }
+
+    @Benchmark
+    public String withMedia() throws Exception {
+        return publisher.buildTweetBody(CONTENT, List.of("1790000000000000001"));
+    }
+}
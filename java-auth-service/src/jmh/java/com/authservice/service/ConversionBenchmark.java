@@ -0,0 +1,86 @@
+package com.authservice.service;
+
+import com.authservice.dto.ProfileDTO;
+import com.authservice.dto.ScheduledPostResponse;
+import com.authservice.entity.PlatformAttempt;
+import com.authservice.entity.Profile;
+import com.authservice.entity.ScheduledPost;
+import com.authservice.entity.User;
+import com.authservice.enums.PlatformType;
+import com.authservice.enums.PostStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion done for every post / profile an API response lists
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionBenchmark {
+
+    private ScheduledPostService scheduledPostService;
+    private ProfileService profileService;
+    private ScheduledPost scheduledPost;
+    private Profile profile;
+
+    @Setup
+    public void setUp() {
+        // The conversions touch none of the services' collaborators
+        scheduledPostService = new ScheduledPostService(null, null, null, null, null);
+        profileService = new ProfileService(null, null, null, null);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+
+        LocalDateTime now = LocalDateTime.now();
+        scheduledPost = new ScheduledPost();
+        scheduledPost.setId(100L);
+        scheduledPost.setUser(user);
+        scheduledPost.setContent("Benchmark post with a realistic amount of text #jmh https://example.com/launch");
+        scheduledPost.setPlatforms(List.of("x", "instagram"));
+        scheduledPost.setStatus(PostStatus.PUBLISHED);
+        PlatformAttempt x = new PlatformAttempt("x");
+        x.recordSuccess("1790000000000000000");
+        PlatformAttempt instagram = new PlatformAttempt("instagram");
+        instagram.recordSuccess("17900000000000000");
+        scheduledPost.setPlatformAttempts(List.of(x, instagram));
+        scheduledPost.setScheduledTime(now);
+        scheduledPost.setNextAttemptAt(now);
+        scheduledPost.setImageUrl("https://example.com/image.png");
+        scheduledPost.setCreatedAt(now);
+        scheduledPost.setUpdatedAt(now);
+
+        profile = new Profile();
+        profile.setId(10L);
+        profile.setUser(user);
+        profile.setPlatform(PlatformType.INSTAGRAM);
+        profile.setUsername("bench");
+        profile.setProfileUrl("https://instagram.com/bench");
+        profile.setAccessToken("bench-access-token");
+        profile.setFollowersCount(1234);
+        profile.setInstagramAccountId("17841400000000001");
+        profile.setAddedAt(now);
+        profile.setUpdatedAt(now);
+    }
+
+    @Benchmark
+    public ScheduledPostResponse scheduledPostToResponse() {
+        return scheduledPostService.convertToResponse(scheduledPost);
+    }
+
+    @Benchmark
+    public ProfileDTO profileToDTO() {
+        return profileService.convertToDTO(profile);
+    }
+}
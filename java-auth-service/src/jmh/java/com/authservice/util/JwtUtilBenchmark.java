@@ -0,0 +1,98 @@
+package com.authservice.util;
+
+import com.authservice.entity.JwtSigningKey;
+import com.authservice.repository.JwtSigningKeyRepository;
+import com.authservice.security.AuthenticatedUser;
+import com.authservice.security.JwtAuthenticationFilter;
+import com.authservice.security.JwtKeyService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done on every authenticated request, the way JwtAuthenticationFilter does them:
+ * a full verification on the first request with a token, a cache hit on the ones after
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String SECRET = "bench-secret-key-for-benchmarks-only-not-for-production-use";
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // Keys held in memory instead of jwt_signing_keys
+        List<JwtSigningKey> stored = new ArrayList<>();
+        JwtSigningKeyRepository repository = Mockito.mock(JwtSigningKeyRepository.class);
+        Mockito.when(repository.save(Mockito.any())).thenAnswer(invocation -> {
+            JwtSigningKey key = invocation.getArgument(0);
+            key.setId((long) stored.size() + 1);
+            stored.add(key);
+            return key;
+        });
+        Mockito.when(repository.findAllByOrderByActivatesAtAsc()).thenAnswer(invocation -> List.copyOf(stored));
+
+        JwtKeyService keyService = new JwtKeyService(repository);
+        ReflectionTestUtils.setField(keyService, "keyEncryptionSecret", SECRET);
+        ReflectionTestUtils.setField(keyService, "legacySecret", SECRET);
+        ReflectionTestUtils.setField(keyService, "tokenLifetimeMs", 86_400_000L);
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 604_800_000L);
+        ReflectionTestUtils.setField(keyService, "publishAheadMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(keyService, "init");
+
+        jwtUtil = new JwtUtil(keyService);
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "signingAlgorithm", algorithm);
+        jwtUtil.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, 10_000);
+        token = jwtUtil.generateToken(EMAIL, "Bench User", "google-123", 42L);
+    }
+
+    /**
+     * Cache miss: signature, expiry and claims checked once
+     */
+    @Benchmark
+    public Long parseClaims() {
+        return jwtUtil.parseClaims(token).get("userId", Long.class);
+    }
+
+    /**
+     * A repeat request through the filter, answered from its verified-token cache
+     */
+    @Benchmark
+    public Long filterCachedToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        try {
+            return ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).userId();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
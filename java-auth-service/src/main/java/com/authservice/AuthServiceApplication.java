@@ -3,8 +3,10 @@ package com.authservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.quartz.QuartzAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {QuartzAutoConfiguration.class})
+@EnableScheduling
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,167 @@
+package com.authservice.config;
+
+import com.authservice.util.PooledOAuthHttpClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToIntFunction;
+
+/**
+ * Shared outbound HTTP client for platform APIs and media downloads.
+ *
+ * One pooled Apache client keeps connections to graph.facebook.com, api.twitter.com and
+ * upload.twitter.com alive between publishes, so calls skip the TCP and TLS handshake. It backs
+ * both the RestTemplate used for Graph / media requests and ScribeJava's signed X requests.
+ * Pool occupancy is exported as the http.client.pool.connections gauge.
+ *
+ * With publishing.engine=reactive a WebClient on a Reactor Netty pool (HTTP/2 where the host
+ * negotiates it) is added for the publishers' publishAsync; its pool metrics are published under
+ * reactor.netty.connection.provider.
+ */
+@Configuration
+@Slf4j
+public class HttpClientConfig {
+
+    @Value("${publishing.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${publishing.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${publishing.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${publishing.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${publishing.http.pool-acquire-timeout-ms:10000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${publishing.http.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    @Value("${publishing.http.reactive.max-pending-acquires:10000}")
+    private int maxPendingAcquires;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager platformConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Re-check connections that sat idle, the platforms drop them silently
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, "max", PoolStats::getMax);
+
+        log.info("Platform HTTP pool configured with {} connections ({} per host)", maxConnections, maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient platformHttpClient(PoolingHttpClientConnectionManager platformConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(platformConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+    }
+
+    /**
+     * RestTemplate for Graph API calls and media downloads
+     */
+    @Bean
+    public RestTemplate platformRestTemplate(CloseableHttpClient platformHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(platformHttpClient));
+    }
+
+    /**
+     * ScribeJava HTTP client for signed X API requests. Its async calls each get a virtual thread,
+     * the connection pool already bounds how many run at once.
+     */
+    @Bean
+    public PooledOAuthHttpClient twitterHttpClient(CloseableHttpClient platformHttpClient,
+                                                   ExecutorService twitterAsyncExecutor) {
+        return new PooledOAuthHttpClient(platformHttpClient, twitterAsyncExecutor);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService twitterAsyncExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("oauth-async-", 0).factory());
+    }
+
+    /**
+     * Non-blocking client for the reactive publishing engine. Requests beyond the pool's connections
+     * queue for one (up to max-pending-acquires) instead of occupying a thread.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "publishing.engine", havingValue = "reactive")
+    public WebClient platformWebClient(WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("platform")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(keepAliveMs))
+                .evictInBackground(Duration.ofMillis(keepAliveMs))
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
+        log.info("Reactive platform client configured with {} connections and {} pending acquires",
+                maxConnections, maxPendingAcquires);
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                                   String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("http.client.pool.connections", connectionManager,
+                        manager -> value.applyAsInt(manager.getTotalStats()))
+                .description("Connections in the platform API HTTP pool")
+                .tag("pool", "platform")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
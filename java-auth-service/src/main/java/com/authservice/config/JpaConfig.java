@@ -0,0 +1,86 @@
+package com.authservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Slf4j
+public class JpaConfig {
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${jpa.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    // Bounds how long another node's write can go unseen, each node caches on its own
+    @Value("${jpa.cache.expire-after-write-ms:300000}")
+    private long cacheExpireAfterWriteMs;
+
+    // Regions named in the entities' @Cache / @NaturalIdCache and the cacheable repository queries
+    private static final List<String> CACHE_REGIONS = List.of(
+            "users", "users-natural-id", "users-by-google-id",
+            "profiles", "profiles-natural-id",
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    /**
+     * Enable JDBC batching so saveAll of sequence-keyed entities is sent as batched inserts.
+     * On PostgreSQL add reWriteBatchedInserts=true to the JDBC URL to turn them into multi-row inserts.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            log.info("Hibernate JDBC batching enabled with batch size {}", properties.get("hibernate.jdbc.batch_size"));
+        };
+    }
+
+    /**
+     * Caffeine-backed JCache regions for Hibernate's second-level cache, each bounded in size and age.
+     * Hibernate fails at startup on a region not declared here rather than creating an unbounded one.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        for (String region : CACHE_REGIONS) {
+            cacheManager.createCache(region, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(cacheMaxEntries))
+                    .setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(cacheExpireAfterWriteMs))));
+        }
+        // Last write per table, must outlive every cached query result so it is never expired
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    /**
+     * Second-level cache for User and Profile, with statistics on so Boot exports them as
+     * hibernate.second.level.cache.requests / hibernate.cache.natural.id.requests (result=hit|miss)
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.cache.use_second_level_cache", true);
+            properties.putIfAbsent("hibernate.cache.use_query_cache", true);
+            properties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            properties.putIfAbsent("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.putIfAbsent("hibernate.generate_statistics", true);
+            log.info("Hibernate second-level cache enabled ({} entries, {} ms per region)",
+                    cacheMaxEntries, cacheExpireAfterWriteMs);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.authservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+
+/**
+ * Identifies this node as the owner of scheduled post leases.
+ * Uses scheduler.node-id if set, otherwise hostname-pid.
+ */
+@Component
+@Slf4j
+public class NodeIdentity {
+
+    @Value("${scheduler.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            nodeId = configuredNodeId;
+        } else {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                host = "unknown-host";
+            }
+            nodeId = host + "-" + ProcessHandle.current().pid();
+        }
+        log.info("Scheduler node ID: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
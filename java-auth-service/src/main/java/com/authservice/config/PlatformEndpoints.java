@@ -0,0 +1,36 @@
+package com.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Base URLs of the platform APIs, bound from publishing.endpoints.*
+ *
+ * Overridden to point publishing at a local platform simulator for load tests:
+ * publishing.endpoints.x-api-url=http://localhost:8089
+ */
+@Component
+@ConfigurationProperties(prefix = "publishing.endpoints")
+@Data
+public class PlatformEndpoints {
+
+    private String xApiUrl = "https://api.twitter.com";
+    private String xUploadUrl = "https://upload.twitter.com";
+    private String graphUrl = "https://graph.facebook.com";
+
+    public String xTweetsUrl() {
+        return xApiUrl + "/2/tweets";
+    }
+
+    public String xMediaUploadUrl() {
+        return xUploadUrl + "/1.1/media/upload.json";
+    }
+
+    /**
+     * Graph URL for a path under the API version, e.g. graphUrl("v18.0", "me/accounts")
+     */
+    public String graphUrl(String apiVersion, String path) {
+        return graphUrl + "/" + apiVersion + "/" + path;
+    }
+}
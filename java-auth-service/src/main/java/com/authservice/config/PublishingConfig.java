@@ -0,0 +1,40 @@
+package com.authservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@Slf4j
+public class PublishingConfig {
+
+    @Value("${publishing.executor.threads:20}")
+    private int publishThreads;
+
+    @Value("${scheduler.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * Executor used to publish to each platform of a scheduled post concurrently
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService platformPublishExecutor() {
+        if (virtualThreadsEnabled) {
+            log.info("Platform publish executor configured with virtual threads");
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("platform-publish-", 0).factory());
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        log.info("Platform publish executor configured with {} threads", publishThreads);
+        return Executors.newFixedThreadPool(publishThreads, runnable -> {
+            Thread thread = new Thread(runnable, "platform-publish-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
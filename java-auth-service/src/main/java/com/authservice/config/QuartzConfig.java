@@ -5,6 +5,7 @@ import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.utils.ConnectionProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
@@ -21,6 +22,18 @@ public class QuartzConfig {
     @Autowired
     private DataSource dataSource;
 
+    @Value("${scheduler.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${scheduler.virtual-threads.max-concurrency:1000}")
+    private int maxConcurrency;
+
+    @Value("${quartz.thread-count:10}")
+    private int threadCount;
+
+    @Value("${quartz.batch-trigger-acquisition-max-count:1}")
+    private int batchTriggerAcquisitionMaxCount;
+
     @Bean
     @DependsOn("dataSource")
     public SchedulerFactoryBean schedulerFactoryBean() throws SQLException {
@@ -70,9 +83,21 @@ public class QuartzConfig {
         props.put("org.quartz.jobStore.clusterCheckinInterval", "20000");
         
         // Thread pool configuration
-        props.put("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
-        props.put("org.quartz.threadPool.threadCount", "10");
-        props.put("org.quartz.threadPool.threadPriority", "5");
+        if (virtualThreadsEnabled) {
+            // One virtual thread per job, capped by maxConcurrency instead of a fixed thread count
+            props.put("org.quartz.threadPool.class", VirtualThreadPool.class.getName());
+            props.put("org.quartz.threadPool.maxConcurrency", String.valueOf(maxConcurrency));
+        } else {
+            props.put("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+            props.put("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
+            props.put("org.quartz.threadPool.threadPriority", "5");
+        }
+
+        // Acquire due triggers in batches so a large pool is not fed one trigger per lock round trip
+        if (batchTriggerAcquisitionMaxCount > 1) {
+            props.put("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", String.valueOf(batchTriggerAcquisitionMaxCount));
+            props.put("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+        }
         
         // Misfire handling
         props.put("org.quartz.jobStore.misfireThreshold", "60000");
@@ -82,7 +107,8 @@ public class QuartzConfig {
         factory.setOverwriteExistingJobs(false);
         factory.setStartupDelay(5); // Small delay to ensure everything is initialized
         
-        log.info("Quartz Scheduler configured with JDBC JobStore");
+        log.info("Quartz Scheduler configured with JDBC JobStore ({})",
+                virtualThreadsEnabled ? "virtual threads, max concurrency " + maxConcurrency : threadCount + " threads");
         log.info("DataSource: {}", dataSource.getClass().getName());
         return factory;
     }
@@ -0,0 +1,57 @@
+package com.authservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outbound rate limits per platform endpoint and account, bound from publishing.rate-limit.*
+ *
+ * publishing.rate-limit.max-wait=20s
+ * publishing.rate-limit.platforms.x.tweets.capacity=100
+ * publishing.rate-limit.platforms.x.tweets.window=15m
+ *
+ * These only seed the buckets; rate limit headers on each response tighten them further.
+ */
+@Component
+@ConfigurationProperties(prefix = "publishing.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    // Longest a publish waits for a token before it is deferred to a later attempt
+    private Duration maxWait = Duration.ofSeconds(20);
+
+    // Backoff when Graph reports throttling without an estimated time to regain access
+    private Duration graphThrottleBackoff = Duration.ofMinutes(5);
+
+    private Limit defaults = new Limit(100, Duration.ofMinutes(15));
+
+    // platform -> endpoint -> limit
+    private Map<String, Map<String, Limit>> platforms = new HashMap<>(Map.of(
+            "x", new HashMap<>(Map.of(
+                    "tweets", new Limit(100, Duration.ofMinutes(15)),
+                    "media-upload", new Limit(400, Duration.ofMinutes(15)))),
+            "instagram", new HashMap<>(Map.of(
+                    "accounts", new Limit(200, Duration.ofHours(1)),
+                    "media", new Limit(200, Duration.ofHours(1)),
+                    "media-publish", new Limit(50, Duration.ofHours(24))))
+    ));
+
+    public Limit forEndpoint(String platform, String endpoint) {
+        return platforms.getOrDefault(platform, Map.of()).getOrDefault(endpoint, defaults);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int capacity;
+        private Duration window;
+    }
+}
@@ -0,0 +1,55 @@
+package com.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-platform circuit breaker and bulkhead settings, bound from publishing.resilience.*
+ *
+ * publishing.resilience.platforms.instagram.max-concurrent=4
+ * publishing.resilience.platforms.instagram.open-duration=2m
+ *
+ * Platforms without an entry use the defaults.
+ */
+@Component
+@ConfigurationProperties(prefix = "publishing.resilience")
+@Data
+public class ResilienceProperties {
+
+    private Platform defaults = new Platform();
+
+    // platform -> settings
+    private Map<String, Platform> platforms = new HashMap<>();
+
+    public Platform forPlatform(String platform) {
+        return platforms.getOrDefault(platform, defaults);
+    }
+
+    @Data
+    public static class Platform {
+
+        // Circuit opens when this share of the recent calls failed...
+        private int failureRateThreshold = 50;
+
+        // ...out of the last sliding-window-size calls, once at least minimum-calls were made
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+
+        // How long the circuit stays open before trial calls are let through
+        private Duration openDuration = Duration.ofMinutes(1);
+        private int halfOpenCalls = 3;
+
+        // Bulkhead: concurrent calls to the platform (unset: the publisher's declared limit; either
+        // way capped below the worker count), and how long a call waits for a slot
+        private Integer maxConcurrent;
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        // When a publish turned away by a full bulkhead is retried
+        private Duration bulkheadRetryAfter = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,38 @@
+package com.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retry backoff settings for failed publishes, bound from publishing.retry.*
+ *
+ * publishing.retry.defaults.initial-delay=30s
+ * publishing.retry.defaults.max-delay=30m
+ * publishing.retry.platforms.instagram.initial-delay=2m
+ */
+@Component
+@ConfigurationProperties(prefix = "publishing.retry")
+@Data
+public class RetryProperties {
+
+    private Backoff defaults = new Backoff();
+
+    // Keyed by platform value ("x", "instagram", ...)
+    private Map<String, Backoff> platforms = new HashMap<>();
+
+    public Backoff forPlatform(String platform) {
+        return platforms.getOrDefault(platform, defaults);
+    }
+
+    @Data
+    public static class Backoff {
+        private Duration initialDelay = Duration.ofSeconds(30);
+        private Duration maxDelay = Duration.ofMinutes(30);
+        private double multiplier = 2.0;
+    }
+}
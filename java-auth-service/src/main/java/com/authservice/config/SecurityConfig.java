@@ -1,6 +1,9 @@
 package com.authservice.config;
 
+import com.authservice.security.JwtAuthenticationFilter;
+import com.authservice.util.JwtUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,6 +13,7 @@ import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -22,11 +26,16 @@ import java.util.List;
 @Slf4j
 public class SecurityConfig {
 
+    @Value("${security.jwt.verified-cache.max-entries:10000}")
+    private int maxCachedTokens;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtUtil jwtUtil) throws Exception {
         log.info("Configuring SecurityFilterChain with OAuth2 login");
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            // Not a bean, so it only runs inside the security chain and not again as a servlet filter
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, maxCachedTokens), UsernamePasswordAuthenticationFilter.class)
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
@@ -36,6 +45,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/oauth2/**", "/login/**", "/error").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .requestMatchers("/api/profiles/**").permitAll() 
                 .requestMatchers("/api/posts/**").permitAll() 
                 .requestMatchers("/api/metrics/**").permitAll()
@@ -0,0 +1,127 @@
+package com.authservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quartz ThreadPool that runs every job on its own virtual thread.
+ *
+ * Jobs spend nearly all their time blocked on outbound HTTP, so instead of a fixed set of
+ * platform threads the pool only caps how many jobs run at once (maxConcurrency). Quartz sets
+ * maxConcurrency from org.quartz.threadPool.maxConcurrency.
+ */
+@Slf4j
+public class VirtualThreadPool implements ThreadPool {
+
+    private int maxConcurrency = 1000;
+    private String instanceName = "QuartzScheduler";
+
+    private Semaphore permits;
+    private ExecutorService executor;
+    private volatile boolean shutdown = false;
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        if (maxConcurrency <= 0) {
+            throw new SchedulerConfigException("maxConcurrency must be > 0");
+        }
+        permits = new Semaphore(maxConcurrency);
+        executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(instanceName + "-vt-", 0).factory());
+        log.info("Quartz virtual thread pool initialized with max concurrency {}", maxConcurrency);
+    }
+
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null || shutdown) {
+            return false;
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            log.error("Virtual thread pool rejected job, pool is shutting down");
+            return false;
+        }
+    }
+
+    @Override
+    public int blockForAvailableThreads() {
+        // Wait until at least one slot is free, then report how many are free
+        while (!shutdown) {
+            try {
+                if (permits.tryAcquire(500, TimeUnit.MILLISECONDS)) {
+                    int available = permits.availablePermits() + 1;
+                    permits.release();
+                    return available;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        shutdown = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (waitForJobsToComplete) {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Quartz virtual thread pool shut down");
+    }
+
+    @Override
+    public int getPoolSize() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void setInstanceId(String schedInstId) {
+        // Thread names only carry the scheduler name, like SimpleThreadPool's
+    }
+
+    @Override
+    public void setInstanceName(String schedName) {
+        this.instanceName = schedName;
+    }
+}
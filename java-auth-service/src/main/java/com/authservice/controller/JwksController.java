@@ -0,0 +1,33 @@
+package com.authservice.controller;
+
+import com.authservice.security.JwtKeyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyService keyService;
+
+    @Value("${jwt.keys.jwks-max-age-ms:900000}")
+    private long jwksMaxAgeMs;
+
+    /**
+     * Public JWT signing keys, for edge and BFF layers verifying tokens locally
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAgeMs, TimeUnit.MILLISECONDS).cachePublic())
+                .body(Map.of("keys", keyService.getJwks()));
+    }
+}
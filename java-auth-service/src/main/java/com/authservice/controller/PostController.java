@@ -2,22 +2,25 @@ package com.authservice.controller;
 
 import com.authservice.dto.CreatePostRequest;
 import com.authservice.dto.ImmediatePostRequest;
+import com.authservice.dto.ScheduledPostResponse;
 import com.authservice.entity.Post;
 import com.authservice.entity.Profile;
+import com.authservice.exception.PublishDeferredException;
 import com.authservice.service.MetricsService;
 import com.authservice.service.PostExecutionService;
 import com.authservice.service.PostService;
 import com.authservice.service.ProfileService;
-import com.authservice.util.JwtUtil;
-import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
+import com.authservice.service.ScheduledPostService;
+import com.authservice.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -35,7 +38,7 @@ public class PostController {
     private final ProfileService profileService;
     private final PostExecutionService postExecutionService;
     private final MetricsService metricsService;
-    private final JwtUtil jwtUtil;
+    private final ScheduledPostService scheduledPostService;
 
     /**
      * Create a new post
@@ -125,14 +128,15 @@ public class PostController {
     }
 
     /**
-     * Post immediately to a platform (Twitter/X or Instagram)
+     * Post immediately to a platform (Twitter/X or Instagram).
+     * With async=true the publish is queued and 202 is returned with the scheduled post to poll.
      */
     @PostMapping("/immediate")
     public ResponseEntity<?> postImmediate(
             @RequestBody @Valid ImmediatePostRequest request,
-            HttpServletRequest httpRequest) {
+            @RequestParam(defaultValue = "false") boolean async) {
         try {
-            Long userId = extractUserIdFromRequest(httpRequest);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -169,6 +173,29 @@ public class PostController {
                                 "Platform mismatch: profile is for " + profile.getPlatform() + " but request is for " + platform));
             }
 
+            // Async: durably queue the publish and free the request thread
+            if (async) {
+                // Same capability checks as a publish, so a post the platform cannot take is a 400 now, not a failed job
+                try {
+                    postExecutionService.validate(platform, request.getContent(), request.getImageUrl());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Bad Request", "message", e.getMessage()));
+                }
+
+                ScheduledPostResponse queued = scheduledPostService.enqueueImmediatePost(
+                        userId, request.getContent(), request.getImageUrl(), platform);
+                String statusUrl = "/api/scheduled-posts/" + queued.getId();
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("jobId", queued.getId());
+                response.put("status", queued.getStatus());
+                response.put("statusUrl", statusUrl);
+                response.put("platform", platform);
+
+                return ResponseEntity.accepted().location(URI.create(statusUrl)).body(response);
+            }
+
             // Post to platform using PostExecutionService
             String platformPostId;
             try {
@@ -185,6 +212,11 @@ public class PostController {
             } catch (IllegalArgumentException e) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(Map.of("error", "Bad Request", "message", e.getMessage()));
+            } catch (PublishDeferredException e) {
+                // Rate limited, circuit open or bulkhead full: tell the client when to try again
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                        .body(Map.of("error", "Service Unavailable", "message", e.getMessage()));
             } catch (Exception e) {
                 log.error("Failed to post to platform: {}", e.getMessage(), e);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -250,11 +282,9 @@ public class PostController {
      * Get recent posts for the authenticated user
      */
     @GetMapping("/user/recent")
-    public ResponseEntity<?> getRecentPostsForUser(
-            HttpServletRequest request,
-            @RequestParam(defaultValue = "20") int limit) {
+    public ResponseEntity<?> getRecentPostsForUser(@RequestParam(defaultValue = "20") int limit) {
         try {
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -289,46 +319,4 @@ public class PostController {
         }
     }
 
-    /**
-     * Extract user ID from JWT token in request
-     */
-    private Long extractUserIdFromRequest(HttpServletRequest request) {
-        try {
-            String token = null;
-
-            // First try to get token from Authorization header
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-            } else {
-                // Fallback: try to get JWT token from cookies
-                Cookie[] cookies = request.getCookies();
-                if (cookies != null) {
-                    for (Cookie cookie : cookies) {
-                        if ("auth-token".equals(cookie.getName())) {
-                            token = cookie.getValue();
-                            break;
-                        }
-                    }
-                }
-            }
-
-            if (token == null) {
-                log.warn("No authentication token found in request");
-                return null;
-            }
-
-            // Validate and extract user ID from token
-            if (jwtUtil.validateToken(token)) {
-                return jwtUtil.getUserIdFromToken(token);
-            } else {
-                log.warn("Invalid or expired token");
-                return null;
-            }
-
-        } catch (Exception e) {
-            log.error("Error extracting user ID from request", e);
-            return null;
-        }
-    }
 }
\ No newline at end of file
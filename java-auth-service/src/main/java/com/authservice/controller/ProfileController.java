@@ -2,15 +2,13 @@ package com.authservice.controller;
 
 import com.authservice.dto.ProfileDTO;
 import com.authservice.service.ProfileService;
-import com.authservice.util.JwtUtil;
+import com.authservice.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,19 +20,18 @@ import java.util.Optional;
 public class ProfileController {
 
     private final ProfileService profileService;
-    private final JwtUtil jwtUtil;
 
     /**
      * Create or update a profile
      */
     @PostMapping
-    public ResponseEntity<?> createOrUpdateProfile(@RequestBody ProfileDTO profileDTO, HttpServletRequest request) {
+    public ResponseEntity<?> createOrUpdateProfile(@RequestBody ProfileDTO profileDTO) {
         try {
             log.info("=== CREATE OR UPDATE PROFILE CALLED ===");
             log.info("Creating or updating profile for platform: {}", profileDTO.getPlatform());
             
             // Extract user ID from JWT token
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 log.warn("Unauthorized request - no user ID extracted");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -60,10 +57,10 @@ public class ProfileController {
      * Get all profiles for the authenticated user
      */
     @GetMapping("/user")
-    public ResponseEntity<?> getProfilesForUser(HttpServletRequest request) {
+    public ResponseEntity<?> getProfilesForUser() {
         try {
             // Extract user ID from JWT token
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -86,10 +83,10 @@ public class ProfileController {
      * Get a specific profile by platform for the authenticated user
      */
     @GetMapping("/user/platform/{platform}")
-    public ResponseEntity<?> getProfileByPlatform(@PathVariable String platform, HttpServletRequest request) {
+    public ResponseEntity<?> getProfileByPlatform(@PathVariable String platform) {
         try {
             // Extract user ID from JWT token
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -116,10 +113,10 @@ public class ProfileController {
      * Delete a profile by platform for the authenticated user
      */
     @DeleteMapping("/user/platform/{platform}")
-    public ResponseEntity<?> deleteProfileByPlatform(@PathVariable String platform, HttpServletRequest request) {
+    public ResponseEntity<?> deleteProfileByPlatform(@PathVariable String platform) {
         try {
             // Extract user ID from JWT token
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -149,10 +146,10 @@ public class ProfileController {
      * Get profile count for the authenticated user
      */
     @GetMapping("/user/count")
-    public ResponseEntity<?> getProfileCount(HttpServletRequest request) {
+    public ResponseEntity<?> getProfileCount() {
         try {
             // Extract user ID from JWT token
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -168,61 +165,6 @@ public class ProfileController {
         }
     }
 
-    /**
-     * Extract user ID from JWT token in request
-     */
-    private Long extractUserIdFromRequest(HttpServletRequest request) {
-        try {
-            log.info("Extracting user ID from request...");
-            String token = null;
-            
-            // First try to get token from Authorization header
-            String authHeader = request.getHeader("Authorization");
-            log.info("Authorization header: {}", authHeader != null ? "present" : "missing");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-                log.info("Extracted token from Authorization header (length: {})", token.length());
-            } else {
-                // Fallback: try to get JWT token from cookies
-                Cookie[] cookies = request.getCookies();
-                log.info("Cookies present: {}", cookies != null);
-                
-                if (cookies != null) {
-                    for (Cookie cookie : cookies) {
-                        log.info("Found cookie: {}", cookie.getName());
-                        if ("auth-token".equals(cookie.getName())) {
-                            token = cookie.getValue();
-                            log.info("Extracted token from cookie (length: {})", token.length());
-                            break;
-                        }
-                    }
-                }
-            }
-
-            if (token == null) {
-                log.warn("No authentication token found in request");
-                return null;
-            }
-
-            // Validate and extract user ID from token
-            boolean isValid = jwtUtil.validateToken(token);
-            log.info("Token validation result: {}", isValid);
-            
-            if (isValid) {
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                log.info("Extracted user ID: {} from token", userId);
-                return userId;
-            } else {
-                log.warn("Invalid or expired token");
-                return null;
-            }
-
-        } catch (Exception e) {
-            log.error("Error extracting user ID from request", e);
-            return null;
-        }
-    }
 }
 
 
@@ -1,17 +1,20 @@
 package com.authservice.controller;
 
+import com.authservice.dto.BulkScheduledPostRequest;
+import com.authservice.dto.BulkScheduledPostResponse;
 import com.authservice.dto.CreateScheduledPostRequest;
 import com.authservice.dto.ScheduledPostResponse;
+import com.authservice.service.ScheduledPostEventHub;
 import com.authservice.service.ScheduledPostService;
-import com.authservice.util.JwtUtil;
-import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
+import com.authservice.security.CurrentUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -25,17 +28,16 @@ import java.util.Optional;
 public class ScheduledPostController {
 
     private final ScheduledPostService scheduledPostService;
-    private final JwtUtil jwtUtil;
+    private final ScheduledPostEventHub scheduledPostEventHub;
 
     /**
      * Create a new scheduled post
      */
     @PostMapping
     public ResponseEntity<?> createScheduledPost(
-            @RequestBody @Valid CreateScheduledPostRequest request,
-            HttpServletRequest httpRequest) {
+            @RequestBody @Valid CreateScheduledPostRequest request) {
         try {
-            Long userId = extractUserIdFromRequest(httpRequest);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -52,13 +54,43 @@ public class ScheduledPostController {
         }
     }
 
+    /**
+     * Create many scheduled posts in one request, returning a result per item
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createScheduledPostsBulk(
+            @RequestBody @Valid BulkScheduledPostRequest request) {
+        try {
+            Long userId = CurrentUser.getUserId();
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
+            }
+
+            log.info("Creating {} scheduled posts in bulk for user ID: {}", request.getPosts().size(), userId);
+            BulkScheduledPostResponse response = scheduledPostService.createScheduledPostsBulk(userId, request.getPosts());
+            HttpStatus status = response.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+
+        } catch (RuntimeException e) {
+            // Handle business logic errors (e.g., too many posts, user not found)
+            log.warn("Business logic error creating scheduled posts in bulk: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Bad Request", "message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error creating scheduled posts in bulk: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal Server Error", "message", e.getMessage()));
+        }
+    }
+
     /**
      * Get all scheduled posts for the authenticated user
      */
     @GetMapping
-    public ResponseEntity<?> getScheduledPosts(HttpServletRequest request) {
+    public ResponseEntity<?> getScheduledPosts() {
         try {
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -75,13 +107,27 @@ public class ScheduledPostController {
         }
     }
 
+    /**
+     * Stream status changes of the authenticated user's scheduled posts as Server-Sent Events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScheduledPostStatus() {
+        Long userId = CurrentUser.getUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        log.info("Opening scheduled post status stream for user ID: {}", userId);
+        return ResponseEntity.ok(scheduledPostEventHub.subscribe(userId));
+    }
+
     /**
      * Get a specific scheduled post by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getScheduledPost(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<?> getScheduledPost(@PathVariable Long id) {
         try {
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -110,10 +156,9 @@ public class ScheduledPostController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateScheduledPost(
             @PathVariable Long id,
-            @RequestBody @Valid CreateScheduledPostRequest request,
-            HttpServletRequest httpRequest) {
+            @RequestBody @Valid CreateScheduledPostRequest request) {
         try {
-            Long userId = extractUserIdFromRequest(httpRequest);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -139,9 +184,9 @@ public class ScheduledPostController {
      * Delete a scheduled post
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteScheduledPost(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<?> deleteScheduledPost(@PathVariable Long id) {
         try {
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -167,9 +212,9 @@ public class ScheduledPostController {
      * Manually trigger a scheduled post for immediate execution (for testing/debugging)
      */
     @PostMapping("/{id}/trigger")
-    public ResponseEntity<?> triggerScheduledPost(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<?> triggerScheduledPost(@PathVariable Long id) {
         try {
-            Long userId = extractUserIdFromRequest(request);
+            Long userId = CurrentUser.getUserId();
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized", "message", "Invalid or missing authentication token"));
@@ -191,47 +236,5 @@ public class ScheduledPostController {
         }
     }
 
-    /**
-     * Extract user ID from JWT token in request
-     */
-    private Long extractUserIdFromRequest(HttpServletRequest request) {
-        try {
-            String token = null;
-
-            // First try to get token from Authorization header
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-            } else {
-                // Fallback: try to get JWT token from cookies
-                Cookie[] cookies = request.getCookies();
-                if (cookies != null) {
-                    for (Cookie cookie : cookies) {
-                        if ("auth-token".equals(cookie.getName())) {
-                            token = cookie.getValue();
-                            break;
-                        }
-                    }
-                }
-            }
-
-            if (token == null) {
-                log.warn("No authentication token found in request");
-                return null;
-            }
-
-            // Validate and extract user ID from token
-            if (jwtUtil.validateToken(token)) {
-                return jwtUtil.getUserIdFromToken(token);
-            } else {
-                log.warn("Invalid or expired token");
-                return null;
-            }
-
-        } catch (Exception e) {
-            log.error("Error extracting user ID from request", e);
-            return null;
-        }
-    }
 }
 
@@ -2,7 +2,8 @@ package com.authservice.controller;
 
 import com.authservice.entity.User;
 import com.authservice.service.UserService;
-import com.authservice.util.JwtUtil;
+import com.authservice.security.AuthenticatedUser;
+import com.authservice.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -19,19 +20,18 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
-    private final JwtUtil jwtUtil;
-
     /**
      * Get current user profile using JWT token
      */
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getUserProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, Object>> getUserProfile() {
         try {
-            // Extract JWT token from Authorization header
-            String token = authHeader.replace("Bearer ", "");
-            
-            // Validate token and extract user info
-            String email = jwtUtil.getEmailFromToken(token);
+            // Verified by JwtAuthenticationFilter
+            AuthenticatedUser principal = CurrentUser.get();
+            if (principal == null) {
+                throw new IllegalStateException("Invalid or missing authentication token");
+            }
+            String email = principal.email();
             
             // Get user from database
             Optional<User> user = userService.findByEmail(email);
@@ -0,0 +1,18 @@
+package com.authservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduledPostRequest {
+
+    // Items are validated one by one so a bad item is reported instead of rejecting the batch
+    @NotEmpty(message = "At least one post is required")
+    private List<CreateScheduledPostRequest> posts;
+}
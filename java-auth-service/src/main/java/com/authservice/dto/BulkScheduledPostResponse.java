@@ -0,0 +1,27 @@
+package com.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduledPostResponse {
+
+    private int created;
+    private int rejected;
+    private List<ItemResult> results; // One per request item, in request order
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;      // Position in the request's posts array
+        private Long id;        // Scheduled post ID when created
+        private String status;  // CREATED or REJECTED
+        private String error;   // Validation error when rejected
+    }
+}
@@ -18,6 +18,7 @@ public class ProfileDTO {
     private String profileUrl;
     private String accessToken;
     private Integer followersCount;
+    private String instagramAccountId; // resolved from Graph for Instagram profiles
     private String bio;
     private String tone; // nullable for now
     private String goal; // nullable for now
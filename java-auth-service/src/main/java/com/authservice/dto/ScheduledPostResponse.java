@@ -1,5 +1,6 @@
 package com.authservice.dto;
 
+import com.authservice.entity.PlatformAttempt;
 import com.authservice.enums.PostStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,7 +19,9 @@ public class ScheduledPostResponse {
     private String content;
     private List<String> platforms;
     private PostStatus status;
+    private List<PlatformAttempt> platformAttempts;
     private LocalDateTime scheduledTime;
+    private LocalDateTime nextAttemptAt;
     private String imageUrl;
     private Integer retryCount;
     private Integer maxRetries;
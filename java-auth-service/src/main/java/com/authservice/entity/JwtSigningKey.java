@@ -0,0 +1,46 @@
+package com.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One ES256 key pair used to sign JWTs, shared by every node through the database.
+ * The private key is stored AES-GCM encrypted under a key derived with HKDF from
+ * jwt.key-encryption-secret (jwt.secret when unset); rows from before that are still read with
+ * the legacy SHA-256(jwt.secret) key.
+ */
+@Entity
+@Table(name = "jwt_signing_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtSigningKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64, unique = true, nullable = false)
+    private String kid;
+
+    @Column(length = 16, nullable = false)
+    private String algorithm;
+
+    // X.509 SubjectPublicKeyInfo, base64
+    @Column(name = "public_key", columnDefinition = "TEXT", nullable = false)
+    private String publicKey;
+
+    // AES-GCM encrypted PKCS#8, base64 (IV prepended)
+    @Column(name = "private_key", columnDefinition = "TEXT", nullable = false)
+    private String privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Published in the JWKS from creation, used for signing only from here on
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+}
@@ -0,0 +1,75 @@
+package com.authservice.entity;
+
+import com.authservice.enums.PostStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Publish state of one platform of a ScheduledPost.
+ * Stored as JSON on the scheduled post so retries only call the platforms that failed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformAttempt {
+
+    private String platform;        // As listed in the post's platforms: "x", "instagram"
+    private PostStatus status;      // PUBLISHED, FAILED or UNKNOWN once attempted, PENDING while deferred
+    private String platformPostId;  // Tweet ID / Instagram media ID once published
+    private int attempts;
+    private String lastError;
+    private boolean rejected;       // FAILED because the platform cannot take the post as it is, not retried
+
+    public PlatformAttempt(String platform) {
+        this.platform = platform;
+        this.status = PostStatus.PENDING;
+    }
+
+    // Derived from status, kept out of the stored JSON so it round-trips
+    @JsonIgnore
+    public boolean isPublished() {
+        return status == PostStatus.PUBLISHED;
+    }
+
+    public void recordSuccess(String platformPostId) {
+        this.attempts++;
+        this.status = PostStatus.PUBLISHED;
+        this.platformPostId = platformPostId;
+        this.lastError = null;
+    }
+
+    /**
+     * Record a call that was held back by a rate limit; does not count as an attempt
+     */
+    public void recordDeferral(String reason) {
+        this.status = PostStatus.PENDING;
+        this.lastError = reason;
+    }
+
+    public void recordFailure(String error) {
+        this.attempts++;
+        this.status = PostStatus.FAILED;
+        this.lastError = error;
+    }
+
+    /**
+     * Record a post the platform cannot take as it is (e.g. too long, missing image); retrying
+     * would fail the same way
+     */
+    public void recordRejection(String error) {
+        recordFailure(error);
+        this.rejected = true;
+    }
+
+    /**
+     * Record a call cut off before its outcome was known; it is not retried automatically, since
+     * the platform may have posted it already
+     */
+    public void recordUnknown(String error) {
+        this.attempts++;
+        this.status = PostStatus.UNKNOWN;
+        this.lastError = error;
+    }
+}
@@ -7,11 +7,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 @Entity
 @Table(name = "profiles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
+@NaturalIdCache(region = "profiles-natural-id")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,10 +30,13 @@ public class Profile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // One profile per user and platform, looked up by this pair through the natural-id cache
+    @NaturalId
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @NaturalId
     @Enumerated(EnumType.STRING)
     @Column(name = "platform", nullable = false)
     private PlatformType platform;
@@ -43,6 +53,10 @@ public class Profile {
     @Column(name = "followers_count")
     private Integer followersCount;
 
+    // Instagram business account that Graph publishes under, resolved when the profile is connected
+    @Column(name = "instagram_account_id", length = 64)
+    private String instagramAccountId;
+
 
     @Column(name = "added_at", nullable = false, updatable = false)
     private LocalDateTime addedAt;
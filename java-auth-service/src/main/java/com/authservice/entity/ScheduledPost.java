@@ -15,15 +15,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "scheduled_posts")
+@Table(name = "scheduled_posts", indexes = {
+        @Index(name = "idx_scheduled_posts_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_scheduled_posts_status_lease", columnList = "status, lease_expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "user.scheduledPosts"})
 public class ScheduledPost {
 
+    // Sequence (not IDENTITY) so inserts can be JDBC-batched; ids are pre-allocated 50 at a time.
+    // Existing schemas need db/upgrade/scheduled_posts_id_seq_increment.sql to match the increment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_posts_seq")
+    @SequenceGenerator(name = "scheduled_posts_seq", sequenceName = "scheduled_posts_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,9 +47,22 @@ public class ScheduledPost {
     @Column(name = "status", nullable = false)
     private PostStatus status = PostStatus.PENDING;
 
+    @Column(name = "platform_attempts", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String platformAttemptsJson; // Stored as JSON: [{"platform": "x", "status": "PUBLISHED", ...}]
+
     @Column(name = "scheduled_time", nullable = false)
     private LocalDateTime scheduledTime;
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // When the post is next due: scheduledTime, then each retry's backoff
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // Set while PROCESSING: the claim is only trusted until then
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // Node holding the lease while PROCESSING
+
     @Column(name = "image_url", columnDefinition = "TEXT")
     private String imageUrl;
 
@@ -73,6 +92,9 @@ public class ScheduledPost {
         if (status == null) {
             status = PostStatus.PENDING;
         }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = scheduledTime;
+        }
         if (retryCount == null) {
             retryCount = 0;
         }
@@ -107,5 +129,25 @@ public class ScheduledPost {
             this.platformsJson = "[]";
         }
     }
+
+    // Helper methods for per-platform attempt state JSON
+    public List<PlatformAttempt> getPlatformAttempts() {
+        try {
+            if (platformAttemptsJson == null || platformAttemptsJson.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return objectMapper.readValue(platformAttemptsJson, new TypeReference<List<PlatformAttempt>>() {});
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
+    }
+
+    public void setPlatformAttempts(List<PlatformAttempt> platformAttempts) {
+        try {
+            this.platformAttemptsJson = objectMapper.writeValueAsString(platformAttempts);
+        } catch (Exception e) {
+            this.platformAttemptsJson = "[]";
+        }
+    }
 }
 
@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-natural-id")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +27,8 @@ public class User {
     @Column(length = 100)
     private String name;
 
+    // Natural ID so findByEmail is answered from the second-level cache; updated on Google login
+    @NaturalId(mutable = true)
     @Column(length = 100, unique = true, nullable = false)
     private String email;
 
@@ -0,0 +1,6 @@
+package com.authservice.enums;
+
+public enum DispatchMode {
+    QUARTZ,     // One Quartz JobDetail + Trigger per scheduled post
+    DATABASE    // Nodes claim due rows from scheduled_posts in batches (SKIP LOCKED)
+}
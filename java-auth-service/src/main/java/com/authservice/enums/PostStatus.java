@@ -4,6 +4,7 @@ public enum PostStatus {
     PENDING,      // Waiting to be posted
     PROCESSING,   // Currently being posted
     PUBLISHED,    // Successfully posted
-    FAILED        // Failed to post (after retries)
+    FAILED,       // Failed to post (after retries)
+    UNKNOWN       // Platform attempt only: the call timed out and may have posted anyway
 }
 
@@ -0,0 +1,45 @@
+package com.authservice.event;
+
+import com.authservice.entity.PlatformAttempt;
+import com.authservice.entity.ScheduledPost;
+import com.authservice.enums.PostStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Status transition of a scheduled post, published as a Spring application event and
+ * pushed as-is to the owner's SSE subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledPostStatusEvent {
+
+    private Long scheduledPostId;
+    private Long userId;
+    private PostStatus status;
+    private Integer retryCount;
+    private Integer maxRetries;
+    private String errorMessage;
+    private LocalDateTime nextAttemptAt;
+    private List<PlatformAttempt> platformAttempts;
+    private LocalDateTime timestamp;
+
+    public static ScheduledPostStatusEvent of(ScheduledPost scheduledPost) {
+        return new ScheduledPostStatusEvent(
+                scheduledPost.getId(),
+                scheduledPost.getUser().getId(),
+                scheduledPost.getStatus(),
+                scheduledPost.getRetryCount(),
+                scheduledPost.getMaxRetries(),
+                scheduledPost.getErrorMessage(),
+                scheduledPost.getNextAttemptAt(),
+                scheduledPost.getPlatformAttempts(),
+                LocalDateTime.now()
+        );
+    }
+}
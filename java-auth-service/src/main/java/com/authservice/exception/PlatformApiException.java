@@ -0,0 +1,27 @@
+package com.authservice.exception;
+
+/**
+ * Non-2xx response from a platform API, keeping the status code and body so callers can tell
+ * platform outages (5xx) from rejected requests (4xx)
+ */
+public class PlatformApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String responseBody;
+
+    public PlatformApiException(String message, int statusCode, String responseBody) {
+        super(message);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
@@ -0,0 +1,16 @@
+package com.authservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a platform's circuit is open or its bulkhead is full, so the publish is deferred
+ * instead of waiting on a platform that is failing or saturated
+ */
+public class PlatformUnavailableException extends PublishDeferredException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PlatformUnavailableException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
@@ -0,0 +1,23 @@
+package com.authservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a publish should be retried later without counting as a failed attempt,
+ * e.g. because the platform's rate limit is exhausted.
+ */
+public class PublishDeferredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public PublishDeferredException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
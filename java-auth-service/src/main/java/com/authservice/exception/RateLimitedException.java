@@ -0,0 +1,15 @@
+package com.authservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a platform rate limit would make a publish wait longer than allowed
+ */
+public class RateLimitedException extends PublishDeferredException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitedException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
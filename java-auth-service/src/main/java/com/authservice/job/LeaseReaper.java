@@ -0,0 +1,143 @@
+package com.authservice.job;
+
+import com.authservice.entity.PlatformAttempt;
+import com.authservice.entity.ScheduledPost;
+import com.authservice.enums.PostStatus;
+import com.authservice.event.ScheduledPostStatusEvent;
+import com.authservice.repository.ScheduledPostRepository;
+import com.authservice.service.RetryBackoffPolicy;
+import com.authservice.service.ScheduledPostService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Returns scheduled posts stuck in PROCESSING to the queue once their lease has expired,
+ * e.g. because the node publishing them died or was redeployed mid-publish.
+ *
+ * Runs on every node; expired rows are claimed with SKIP LOCKED so nodes split the work.
+ * A recovered post counts as a retry, so a post that keeps killing its node ends up FAILED.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduler.reaper.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LeaseReaper {
+
+    private final ScheduledPostRepository scheduledPostRepository;
+    private final ScheduledPostService scheduledPostService;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${scheduler.reaper.batch-size:100}")
+    private int batchSize;
+
+    @Value("${scheduler.claim.lease-ms:300000}")
+    private long leaseMs;
+
+    private Counter requeuedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        requeuedCounter = Counter.builder("scheduled.posts.lease.recovered")
+                .description("Scheduled posts whose lease expired in PROCESSING")
+                .tag("outcome", "requeued")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("scheduled.posts.lease.recovered")
+                .description("Scheduled posts whose lease expired in PROCESSING")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.reaper.interval-ms:60000}",
+               initialDelayString = "${scheduler.reaper.initial-delay-ms:30000}")
+    public void reap() {
+        int recovered = 0;
+        List<ScheduledPost> batch;
+        do {
+            batch = reapBatch();
+            recovered += batch.size();
+
+            // Quartz triggers are gone once fired, so requeued posts need a new one
+            for (ScheduledPost post : batch) {
+                eventPublisher.publishEvent(ScheduledPostStatusEvent.of(post));
+                if (post.getStatus() == PostStatus.PENDING) {
+                    try {
+                        scheduledPostService.scheduleRetry(post);
+                    } catch (Exception e) {
+                        log.error("Failed to reschedule recovered post ID: {}", post.getId(), e);
+                    }
+                }
+            }
+        } while (batch.size() == batchSize);
+
+        if (recovered > 0) {
+            log.warn("Recovered {} scheduled posts with expired leases", recovered);
+        }
+    }
+
+    /**
+     * Lock a batch of expired leases and requeue them (or fail them when out of retries) in one transaction
+     */
+    private List<ScheduledPost> reapBatch() {
+        List<ScheduledPost> reaped = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ScheduledPost> expired = scheduledPostRepository.findExpiredLeasesForUpdate(
+                    now, now.minusNanos(leaseMs * 1_000_000), PageRequest.of(0, batchSize));
+
+            for (ScheduledPost post : expired) {
+                String error = "Lease held by " + (post.getLeaseOwner() != null ? post.getLeaseOwner() : "unknown node")
+                        + " expired at " + post.getLeaseExpiresAt();
+                post.setLeaseOwner(null);
+                post.setLeaseExpiresAt(null);
+                post.setErrorMessage(error);
+
+                if (post.getRetryCount() < post.getMaxRetries()) {
+                    // Backed off like any other retry, so posts orphaned by one node going down come back spread out
+                    int attempt = post.getRetryCount() + 1;
+                    post.setStatus(PostStatus.PENDING);
+                    post.setRetryCount(attempt);
+                    post.setNextAttemptAt(now.plus(retryBackoffPolicy.nextDelay(unpublishedPlatforms(post), attempt)));
+                    requeuedCounter.increment();
+                    log.warn("Requeued scheduled post {}: {}", post.getId(), error);
+                } else {
+                    post.setStatus(PostStatus.FAILED);
+                    failedCounter.increment();
+                    log.error("Failed scheduled post {} after {} retries: {}", post.getId(), post.getMaxRetries(), error);
+                }
+            }
+            return scheduledPostRepository.saveAll(expired);
+        });
+        return reaped != null ? reaped : List.of();
+    }
+
+    /**
+     * Platforms the next attempt will call, i.e. those that have not published yet
+     */
+    private List<String> unpublishedPlatforms(ScheduledPost post) {
+        Set<String> published = post.getPlatformAttempts().stream()
+                .filter(PlatformAttempt::isPublished)
+                .map(PlatformAttempt::getPlatform)
+                .collect(Collectors.toSet());
+        return post.getPlatforms().stream()
+                .filter(platform -> !published.contains(platform))
+                .collect(Collectors.toList());
+    }
+}
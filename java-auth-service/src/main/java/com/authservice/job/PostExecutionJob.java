@@ -1,27 +1,64 @@
 package com.authservice.job;
 
+import com.authservice.config.NodeIdentity;
+import com.authservice.entity.PlatformAttempt;
 import com.authservice.entity.Post;
 import com.authservice.entity.Profile;
 import com.authservice.entity.ScheduledPost;
 import com.authservice.enums.PostStatus;
 import com.authservice.enums.PlatformType;
+import com.authservice.event.ScheduledPostStatusEvent;
+import com.authservice.exception.PublishDeferredException;
+import com.authservice.publisher.PlatformPublisherRegistry;
+import com.authservice.publisher.PublishRequest;
 import com.authservice.repository.ScheduledPostRepository;
 import com.authservice.repository.ProfileRepository;
 import com.authservice.service.PostExecutionService;
 import com.authservice.service.PostService;
+import com.authservice.service.PreparedPublish;
+import com.authservice.service.PublishPrefetcher;
+import com.authservice.service.ReactivePostExecutionService;
+import com.authservice.service.RetryBackoffPolicy;
+import com.authservice.service.ScheduledPostService;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.Job;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * Publishes a scheduled post to its platforms.
+ *
+ * Deliberately not @Transactional: the claim, each Post row and the final status are short
+ * repository transactions of their own, so no DB connection is held while waiting on the
+ * X / Instagram APIs. Each platform's outcome is written as soon as it is known, so a crash or a
+ * lost lease never makes the next attempt post again to a platform that already published.
+ * A call that times out after its post request went out may have posted anyway, so it is
+ * recorded as UNKNOWN and not retried; one that timed out before that is retried as a failure.
+ */
 @Component
 @Slf4j
 public class PostExecutionJob implements Job {
@@ -38,8 +75,39 @@ public class PostExecutionJob implements Job {
     @Autowired
     private PostExecutionService postExecutionService;
 
+    // Present only with publishing.engine=reactive
+    @Autowired(required = false)
+    private ReactivePostExecutionService reactivePostExecutionService;
+
+    @Autowired
+    private ScheduledPostService scheduledPostService;
+
+    @Autowired
+    private RetryBackoffPolicy retryBackoffPolicy;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private PublishPrefetcher publishPrefetcher;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformPublisherRegistry publisherRegistry;
+
+    @Autowired
+    @Qualifier("platformPublishExecutor")
+    private ExecutorService platformPublishExecutor;
+
+    @Value("${scheduler.claim.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${publishing.timeout.default-ms:30000}")
+    private long defaultTimeoutMs;
+
     @Override
-    @Transactional
     public void execute(JobExecutionContext context) throws JobExecutionException {
         JobDataMap jobDataMap = context.getJobDetail().getJobDataMap();
         Long scheduledPostId = jobDataMap.getLong("scheduledPostId");
@@ -47,7 +115,17 @@ public class PostExecutionJob implements Job {
         log.info("Executing PostExecutionJob for scheduled post ID: {}", scheduledPostId);
 
         try {
-            // Fetch scheduled post
+            // Claim with a single conditional UPDATE, committed before any platform call.
+            // A duplicate fire (other node, misfire, retry trigger) matches no row and stops here.
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = scheduledPostRepository.claimPending(
+                    scheduledPostId, nodeIdentity.getNodeId(), now.plus(Duration.ofMillis(leaseMs)), now);
+            if (claimed == 0) {
+                log.info("Scheduled post {} is not PENDING or was already claimed, skipping", scheduledPostId);
+                return;
+            }
+
+            // Fetch the claimed scheduled post
             Optional<ScheduledPost> postOpt = scheduledPostRepository.findById(scheduledPostId);
             if (postOpt.isEmpty()) {
                 log.error("Scheduled post not found with ID: {}", scheduledPostId);
@@ -55,107 +133,441 @@ public class PostExecutionJob implements Job {
             }
 
             ScheduledPost scheduledPost = postOpt.get();
+            eventPublisher.publishEvent(ScheduledPostStatusEvent.of(scheduledPost));
+            publish(scheduledPost);
 
-            // Check if already processed
-            if (scheduledPost.getStatus() != PostStatus.PENDING) {
-                log.info("Scheduled post {} already processed with status: {}", scheduledPostId, scheduledPost.getStatus());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Lease on scheduled post {} was lost while publishing, the post has been requeued", scheduledPostId);
+        } catch (Exception e) {
+            log.error("Error executing PostExecutionJob for scheduled post ID: {}", scheduledPostId, e);
+            markFailed(scheduledPostId, e);
+        }
+    }
+
+    /**
+     * Publish a scheduled post that has already been claimed (status PROCESSING) by the
+     * database dispatcher. Skips the PENDING check since the claim was made under row lock.
+     */
+    public void executeClaimed(Long scheduledPostId) {
+        log.info("Executing claimed scheduled post ID: {}", scheduledPostId);
+
+        try {
+            Optional<ScheduledPost> postOpt = scheduledPostRepository.findById(scheduledPostId);
+            if (postOpt.isEmpty()) {
+                log.error("Scheduled post not found with ID: {}", scheduledPostId);
                 return;
             }
 
-            // Update status to PROCESSING (with optimistic locking)
-            try {
-                scheduledPost.setStatus(PostStatus.PROCESSING);
-                scheduledPostRepository.save(scheduledPost);
-            } catch (Exception e) {
-                log.warn("Failed to update status to PROCESSING (likely concurrent execution): {}", e.getMessage());
-                return; // Another instance is processing
+            ScheduledPost scheduledPost = postOpt.get();
+            if (scheduledPost.getStatus() != PostStatus.PROCESSING) {
+                log.info("Scheduled post {} is no longer claimed (status: {})", scheduledPostId, scheduledPost.getStatus());
+                return;
             }
 
-            // Post to each platform
-            List<String> platforms = scheduledPost.getPlatforms();
-            boolean allSucceeded = true;
-            String lastError = null;
+            eventPublisher.publishEvent(ScheduledPostStatusEvent.of(scheduledPost));
+            publish(scheduledPost);
 
-            for (String platformStr : platforms) {
-                try {
-                    PlatformType platformType = PlatformType.valueOf(platformStr.toUpperCase());
-                    
-                    // Get profile for this platform
-                    Optional<Profile> profileOpt = profileRepository
-                            .findByUserIdAndPlatform(scheduledPost.getUser().getId(), platformType);
-
-                    if (profileOpt.isEmpty()) {
-                        log.error("Profile not found for user {} and platform {}", 
-                                scheduledPost.getUser().getId(), platformType);
-                        allSucceeded = false;
-                        lastError = "Profile not found for platform: " + platformStr;
-                        continue;
-                    }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Lease on scheduled post {} was lost while publishing, the post has been requeued", scheduledPostId);
+        } catch (Exception e) {
+            log.error("Error executing claimed scheduled post ID: {}", scheduledPostId, e);
+            markFailed(scheduledPostId, e);
+        }
+    }
 
-                    Profile profile = profileOpt.get();
+    /**
+     * Post to each platform that has not been published yet, concurrently, and record the final status
+     */
+    private void publish(ScheduledPost scheduledPost) {
+        Long scheduledPostId = scheduledPost.getId();
 
-                    // Post to platform (will be implemented in PostExecutionService)
-                    String platformPostId = postExecutionService.postToPlatform(
-                            scheduledPost, 
-                            profile, 
-                            platformStr
-                    );
+        List<String> platforms = scheduledPost.getPlatforms();
+        String lastError = null;
+        Duration deferredFor = Duration.ZERO;
 
-                    // Create Post entity in DB
-                    Post post = new Post();
-                    post.setContent(scheduledPost.getContent());
-                    post.setProfile(profile);
-                    post.setCreatedAt(LocalDateTime.now());
-                    Post savedPost = postService.createPost(post);
+        // Per-platform state from previous attempts, so a retry only calls the platforms that failed
+        Map<String, PlatformAttempt> attempts = new LinkedHashMap<>();
+        for (PlatformAttempt attempt : scheduledPost.getPlatformAttempts()) {
+            attempts.put(attempt.getPlatform(), attempt);
+        }
+        for (String platformStr : platforms) {
+            attempts.computeIfAbsent(platformStr, PlatformAttempt::new);
+        }
 
-                    log.info("Successfully posted to {} for scheduled post ID: {} and saved Post with ID: {}", 
-                            platformStr, scheduledPostId, savedPost.getId());
+        AttemptRecorder recorder = new AttemptRecorder(scheduledPost, platforms, attempts);
 
-                } catch (Exception e) {
-                    log.error("Failed to post to {} for scheduled post ID: {}", platformStr, scheduledPostId, e);
-                    allSucceeded = false;
-                    lastError = "Failed to post to " + platformStr + ": " + e.getMessage();
+        // Use what the prefetch stage staged ahead of time, if anything
+        PreparedPublish prepared = publishPrefetcher.take(scheduledPost);
+
+        // Resolve profiles on this thread, then fan the platform calls out to the publish executor
+        // (or, with the reactive engine, subscribe to each platform's non-blocking publish chain)
+        long startedAt = System.currentTimeMillis();
+        Map<String, Profile> profiles = new LinkedHashMap<>();
+        Map<String, PublishRequest> requests = new LinkedHashMap<>();
+        Map<String, Future<String>> publishes = new LinkedHashMap<>();
+
+        for (String platformStr : platforms) {
+            PlatformAttempt attempt = attempts.get(platformStr);
+            if (attempt.isPublished()) {
+                log.info("Skipping {} for scheduled post ID: {}, already published as {}", 
+                        platformStr, scheduledPostId, attempt.getPlatformPostId());
+                continue;
+            }
+            if (attempt.getStatus() == PostStatus.UNKNOWN) {
+                log.warn("Skipping {} for scheduled post ID: {}, an earlier call timed out and may have posted",
+                        platformStr, scheduledPostId);
+                continue;
+            }
+            if (attempt.isRejected()) {
+                log.warn("Skipping {} for scheduled post ID: {}, rejected earlier: {}",
+                        platformStr, scheduledPostId, attempt.getLastError());
+                continue;
+            }
+
+            try {
+                PlatformType platformType = PlatformType.valueOf(platformStr.toUpperCase());
+                
+                // Get profile for this platform (prefetched, or looked up now)
+                Optional<Profile> profileOpt = prepared != null && prepared.getProfiles().containsKey(platformStr)
+                        ? Optional.of(prepared.getProfiles().get(platformStr))
+                        : profileRepository.findByUserIdAndPlatform(scheduledPost.getUser().getId(), platformType);
+
+                if (profileOpt.isEmpty()) {
+                    log.error("Profile not found for user {} and platform {}", 
+                            scheduledPost.getUser().getId(), platformType);
+                    lastError = "Profile not found for platform: " + platformStr;
+                    recorder.failure(platformStr, lastError);
+                    continue;
                 }
+
+                // One time budget for the whole publish: rate-limit waits and media processing give up
+                // within it instead of running past the join below
+                Profile profile = profileOpt.get();
+                profiles.put(platformStr, profile);
+                PublishRequest request = new PublishRequest(scheduledPost.getContent(), scheduledPost.getImageUrl(),
+                        profile, prepared);
+                request.setDeadline(startedAt + timeoutFor(platformStr));
+                requests.put(platformStr, request);
+
+                // The success is recorded by the call itself, not when it is joined below
+                publishes.put(platformStr, reactivePostExecutionService != null
+                        ? reactivePostExecutionService.postToPlatform(scheduledPost, platformStr, request)
+                                .flatMap(platformPostId -> Mono.fromCallable(() -> {
+                                    recorder.success(platformStr, platformPostId);
+                                    return platformPostId;
+                                }).subscribeOn(Schedulers.boundedElastic()))
+                                .toFuture()
+                        : platformPublishExecutor.submit(() -> {
+                            String platformPostId = postExecutionService.postToPlatform(
+                                    scheduledPost, platformStr, request);
+                            recorder.success(platformStr, platformPostId);
+                            return platformPostId;
+                        }));
+
+            } catch (Exception e) {
+                log.error("Failed to post to {} for scheduled post ID: {}", platformStr, scheduledPostId, e);
+                lastError = "Failed to post to " + platformStr + ": " + e.getMessage();
+                recorder.failure(platformStr, lastError);
             }
+        }
 
-            // Update final status
-            if (allSucceeded) {
-                scheduledPost.setStatus(PostStatus.PUBLISHED);
-                scheduledPost.setErrorMessage(null);
-                log.info("Successfully completed all posts for scheduled post ID: {}", scheduledPostId);
-            } else {
-                // Check if we should retry
-                if (scheduledPost.getRetryCount() < scheduledPost.getMaxRetries()) {
-                    // Reschedule with delay (will be handled by retry logic)
-                    scheduledPost.setStatus(PostStatus.PENDING);
-                    scheduledPost.setRetryCount(scheduledPost.getRetryCount() + 1);
-                    scheduledPost.setErrorMessage(lastError);
-                    log.info("Scheduled post {} will be retried (attempt {}/{})", 
-                            scheduledPostId, scheduledPost.getRetryCount(), scheduledPost.getMaxRetries());
+        // Join each platform within its own timeout, measured from the start of the fan-out
+        for (Map.Entry<String, Future<String>> entry : publishes.entrySet()) {
+            String platformStr = entry.getKey();
+            Future<String> publishFuture = entry.getValue();
+            long timeoutMs = timeoutFor(platformStr);
+            long remainingMs = Math.max(0, startedAt + timeoutMs - System.currentTimeMillis());
+
+            try {
+                String platformPostId = publishFuture.get(remainingMs, TimeUnit.MILLISECONDS);
+
+                // Create Post entity in DB
+                Post post = new Post();
+                post.setContent(scheduledPost.getContent());
+                post.setProfile(profiles.get(platformStr));
+                post.setCreatedAt(LocalDateTime.now());
+                Post savedPost = postService.createPost(post);
+
+                log.info("Successfully posted to {} for scheduled post ID: {} (platform post ID: {}) and saved Post with ID: {}", 
+                        platformStr, scheduledPostId, platformPostId, savedPost.getId());
+
+            } catch (TimeoutException e) {
+                publishFuture.cancel(true);
+                lastError = "Timed out posting to " + platformStr + " after " + timeoutMs + " ms";
+                if (requests.get(platformStr).abandon()) {
+                    // The post request went out and may have gone through
+                    log.error("Timed out after {} ms posting to {} for scheduled post ID: {}, outcome unknown",
+                            timeoutMs, platformStr, scheduledPostId);
+                    recorder.unknown(platformStr, lastError);
+                } else {
+                    // Still waiting on rate limits, the bulkhead or the media upload: nothing was posted
+                    log.error("Timed out after {} ms before posting to {} for scheduled post ID: {}",
+                            timeoutMs, platformStr, scheduledPostId);
+                    recorder.failure(platformStr, lastError);
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                PublishDeferredException deferral = findDeferral(cause);
+                if (deferral != null) {
+                    // Rate limited before the call went out: wait it out without spending a retry
+                    log.warn("Deferred {} for scheduled post ID: {}: {}", platformStr, scheduledPostId, deferral.getMessage());
+                    recorder.update(platformStr, attempt -> attempt.recordDeferral(deferral.getMessage()));
+                    deferredFor = max(deferredFor, deferral.getRetryAfter());
+                    continue;
+                }
+                if (cause instanceof IllegalArgumentException) {
+                    // Failed validation (too long, missing image, bad token format): a retry fails the same way
+                    log.error("{} rejected scheduled post ID: {}: {}", platformStr, scheduledPostId, cause.getMessage());
+                    lastError = "Rejected by " + platformStr + ": " + cause.getMessage();
+                    recorder.rejection(platformStr, lastError);
+                    continue;
+                }
+                log.error("Failed to post to {} for scheduled post ID: {}", platformStr, scheduledPostId, cause);
+                lastError = "Failed to post to " + platformStr + ": " + cause.getMessage();
+                recorder.failure(platformStr, lastError);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                publishFuture.cancel(true);
+                lastError = "Interrupted while posting to " + platformStr;
+                if (requests.get(platformStr).abandon()) {
+                    recorder.unknown(platformStr, lastError);
                 } else {
-                    scheduledPost.setStatus(PostStatus.FAILED);
-                    scheduledPost.setErrorMessage(lastError);
-                    log.error("Scheduled post {} failed after {} retries", 
-                            scheduledPostId, scheduledPost.getMaxRetries());
+                    recorder.failure(platformStr, lastError);
                 }
+            } catch (Exception e) {
+                // The platform call succeeded (attempt stays PUBLISHED), only the local Post row failed
+                log.error("Failed to record post to {} for scheduled post ID: {}", platformStr, scheduledPostId, e);
             }
+        }
 
-            scheduledPostRepository.save(scheduledPost);
+        // Calls cut off by a timeout may still finish; from here on they no longer write the row
+        if (!recorder.close()) {
+            log.warn("Lease on scheduled post {} was lost while publishing, leaving it to the new owner", scheduledPostId);
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("Error executing PostExecutionJob for scheduled post ID: {}", scheduledPostId, e);
-            // Update status to FAILED if not already updated
+        scheduledPost.setLeaseOwner(null);
+        scheduledPost.setLeaseExpiresAt(null);
+        scheduledPost.setPlatformAttempts(platforms.stream()
+                .map(attempts::get)
+                .collect(Collectors.toList()));
+        List<String> failedPlatforms = platforms.stream()
+                .filter(platform -> attempts.get(platform).getStatus() == PostStatus.FAILED
+                        && !attempts.get(platform).isRejected())
+                .collect(Collectors.toList());
+        List<String> rejectedPlatforms = platforms.stream()
+                .filter(platform -> attempts.get(platform).isRejected())
+                .collect(Collectors.toList());
+        boolean deferred = platforms.stream()
+                .anyMatch(platform -> attempts.get(platform).getStatus() == PostStatus.PENDING);
+        List<String> unknownPlatforms = platforms.stream()
+                .filter(platform -> attempts.get(platform).getStatus() == PostStatus.UNKNOWN)
+                .collect(Collectors.toList());
+
+        // Update final status
+        boolean retryScheduled = false;
+        if (failedPlatforms.isEmpty() && deferred) {
+            // Only rate-limit deferrals: requeue for when the limit frees up, retry count unchanged
+            scheduledPost.setStatus(PostStatus.PENDING);
+            scheduledPost.setNextAttemptAt(LocalDateTime.now().plus(deferredFor));
+            retryScheduled = true;
+            log.info("Scheduled post {} deferred by rate limit for {}s", scheduledPostId, deferredFor.toSeconds());
+        } else if (failedPlatforms.isEmpty() && (!unknownPlatforms.isEmpty() || !rejectedPlatforms.isEmpty())) {
+            // Retrying would fail the same way on rejected platforms and could post twice on unknown ones,
+            // so these are left for someone to fix the post or check on the platform
+            List<String> errors = rejectedPlatforms.stream()
+                    .map(platform -> attempts.get(platform).getLastError())
+                    .collect(Collectors.toList());
+            if (!unknownPlatforms.isEmpty()) {
+                errors.add("Outcome unknown on " + String.join(", ", unknownPlatforms)
+                        + ", check the platform before posting again");
+            }
+            scheduledPost.setStatus(PostStatus.FAILED);
+            scheduledPost.setErrorMessage(String.join("; ", errors));
+            log.error("Scheduled post {} was rejected on {} / has unknown outcome on {}, not retrying",
+                    scheduledPostId, rejectedPlatforms, unknownPlatforms);
+        } else if (failedPlatforms.isEmpty()) {
+            scheduledPost.setStatus(PostStatus.PUBLISHED);
+            scheduledPost.setErrorMessage(null);
+            log.info("Successfully completed all posts for scheduled post ID: {}", scheduledPostId);
+        } else {
+            // Check if we should retry
+            if (scheduledPost.getRetryCount() < scheduledPost.getMaxRetries()) {
+                // Reschedule with exponential backoff and jitter
+                int attempt = scheduledPost.getRetryCount() + 1;
+                Duration delay = max(retryBackoffPolicy.nextDelay(failedPlatforms, attempt), deferredFor);
+                scheduledPost.setStatus(PostStatus.PENDING);
+                scheduledPost.setRetryCount(attempt);
+                scheduledPost.setNextAttemptAt(LocalDateTime.now().plus(delay));
+                scheduledPost.setErrorMessage(lastError);
+                retryScheduled = true;
+                log.info("Scheduled post {} will be retried in {}s (attempt {}/{})", 
+                        scheduledPostId, delay.toSeconds(), scheduledPost.getRetryCount(), scheduledPost.getMaxRetries());
+            } else {
+                scheduledPost.setStatus(PostStatus.FAILED);
+                scheduledPost.setErrorMessage(lastError);
+                log.error("Scheduled post {} failed after {} retries", 
+                        scheduledPostId, scheduledPost.getMaxRetries());
+            }
+        }
+
+        ScheduledPost savedPost = scheduledPostRepository.save(scheduledPost);
+        eventPublisher.publishEvent(ScheduledPostStatusEvent.of(savedPost));
+        if (retryScheduled) {
+            scheduledPostService.scheduleRetry(savedPost);
+        }
+    }
+
+    /**
+     * Applies changes to the post's platform attempts and writes them straight away, guarded by
+     * lease owner and version, so a recovered post skips the platforms that already published.
+     * Shared by the platform calls, which finish concurrently. Serialized with a ReentrantLock
+     * rather than synchronized, which would pin a virtual thread for the whole JDBC write.
+     */
+    private final class AttemptRecorder {
+
+        private final ScheduledPost scheduledPost;
+        private final List<String> platforms;
+        private final Map<String, PlatformAttempt> attempts;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean leaseLost;
+        private boolean closed;
+
+        private AttemptRecorder(ScheduledPost scheduledPost, List<String> platforms, Map<String, PlatformAttempt> attempts) {
+            this.scheduledPost = scheduledPost;
+            this.platforms = platforms;
+            this.attempts = attempts;
+        }
+
+        void success(String platform, String platformPostId) {
+            if (!update(platform, attempt -> attempt.recordSuccess(platformPostId))) {
+                log.warn("{} published scheduled post {} after its attempt was closed (platform post ID: {})",
+                        platform, scheduledPost.getId(), platformPostId);
+            }
+        }
+
+        /**
+         * Record a failure, unless the call already published (e.g. it completed just after its timeout)
+         */
+        void failure(String platform, String error) {
+            update(platform, attempt -> {
+                if (!attempt.isPublished()) {
+                    attempt.recordFailure(error);
+                }
+            });
+        }
+
+        /**
+         * Record a post the platform cannot take, so it is not retried
+         */
+        void rejection(String platform, String error) {
+            update(platform, attempt -> {
+                if (!attempt.isPublished()) {
+                    attempt.recordRejection(error);
+                }
+            });
+        }
+
+        /**
+         * Record a call whose outcome is unknown, unless it already published
+         */
+        void unknown(String platform, String error) {
+            update(platform, attempt -> {
+                if (!attempt.isPublished()) {
+                    attempt.recordUnknown(error);
+                }
+            });
+        }
+
+        /**
+         * @return false if the recorder was already closed and the change was dropped
+         */
+        boolean update(String platform, Consumer<PlatformAttempt> change) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                change.accept(attempts.get(platform));
+                if (leaseLost) {
+                    return true;
+                }
+
+                scheduledPost.setPlatformAttempts(platforms.stream()
+                        .map(attempts::get)
+                        .collect(Collectors.toList()));
+                try {
+                    int updated = scheduledPostRepository.saveAttempts(scheduledPost.getId(), scheduledPost.getLeaseOwner(),
+                            scheduledPost.getVersion(), scheduledPost.getPlatformAttemptsJson(), LocalDateTime.now());
+                    if (updated == 1) {
+                        scheduledPost.setVersion(scheduledPost.getVersion() + 1);
+                    } else {
+                        leaseLost = true;
+                    }
+                } catch (Exception e) {
+                    // Kept in memory and written with the final status
+                    log.error("Failed to store {} attempt for scheduled post {}", platform, scheduledPost.getId(), e);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stop writing; returns false if the lease was lost along the way
+         */
+        boolean close() {
+            lock.lock();
             try {
-                Optional<ScheduledPost> postOpt = scheduledPostRepository.findById(scheduledPostId);
-                postOpt.ifPresent(post -> {
-                    post.setStatus(PostStatus.FAILED);
-                    post.setErrorMessage(e.getMessage());
-                    scheduledPostRepository.save(post);
-                });
-            } catch (Exception ex) {
-                log.error("Failed to update status to FAILED", ex);
+                closed = true;
+                return !leaseLost;
+            } finally {
+                lock.unlock();
             }
         }
     }
-}
 
+    /**
+     * Per-platform publish timeout, as declared by the platform's publisher
+     */
+    private long timeoutFor(String platformStr) {
+        return publisherRegistry.find(platformStr)
+                .map(publisher -> publisher.getCapabilities().getTimeout().toMillis())
+                .orElse(defaultTimeoutMs);
+    }
+
+    /**
+     * Find a rate-limit deferral anywhere in the cause chain
+     */
+    private PublishDeferredException findDeferral(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof PublishDeferredException deferral) {
+                return deferral;
+            }
+        }
+        return null;
+    }
+
+    private Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Update status to FAILED if not already updated
+     */
+    private void markFailed(Long scheduledPostId, Exception e) {
+        try {
+            Optional<ScheduledPost> postOpt = scheduledPostRepository.findById(scheduledPostId);
+            postOpt.ifPresent(post -> {
+                post.setStatus(PostStatus.FAILED);
+                post.setLeaseOwner(null);
+                post.setLeaseExpiresAt(null);
+                post.setErrorMessage(e.getMessage());
+                eventPublisher.publishEvent(ScheduledPostStatusEvent.of(scheduledPostRepository.save(post)));
+            });
+        } catch (Exception ex) {
+            log.error("Failed to update status to FAILED", ex);
+        }
+    }
+}
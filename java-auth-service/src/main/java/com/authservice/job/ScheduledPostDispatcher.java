@@ -0,0 +1,148 @@
+package com.authservice.job;
+
+import com.authservice.config.NodeIdentity;
+import com.authservice.entity.ScheduledPost;
+import com.authservice.enums.PostStatus;
+import com.authservice.repository.ScheduledPostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Database-native dispatcher for scheduled posts (scheduler.dispatch.mode=database).
+ *
+ * Treats the scheduled_posts table as the queue: every node polls for PENDING rows whose
+ * next_attempt_at has passed, claims a batch with SELECT ... FOR UPDATE SKIP LOCKED, flips
+ * them to PROCESSING and hands them to PostExecutionJob. Nodes never block on each other's
+ * locks and no QRTZ_* rows are written per post.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduler.dispatch.mode", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledPostDispatcher {
+
+    private final ScheduledPostRepository scheduledPostRepository;
+    private final PostExecutionJob postExecutionJob;
+    private final TransactionTemplate transactionTemplate;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${scheduler.dispatch.batch-size:100}")
+    private int batchSize;
+
+    @Value("${scheduler.dispatch.worker-threads:10}")
+    private int workerThreads;
+
+    @Value("${scheduler.claim.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${scheduler.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${scheduler.virtual-threads.max-concurrency:1000}")
+    private int maxConcurrency;
+
+    private ExecutorService workers;
+    private Semaphore availableWorkers;
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreadsEnabled) {
+            // Workers are cheap, the semaphore alone bounds concurrency
+            workerThreads = maxConcurrency;
+            workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("post-dispatch-", 0).factory());
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+                Thread thread = new Thread(runnable, "post-dispatch-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        availableWorkers = new Semaphore(workerThreads);
+
+        int backfilled = scheduledPostRepository.backfillNextAttemptAt();
+        if (backfilled > 0) {
+            log.info("Backfilled next attempt time for {} scheduled posts", backfilled);
+        }
+        log.info("Database dispatcher started with {} {}workers and batch size {}",
+                workerThreads, virtualThreadsEnabled ? "virtual " : "", batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Dispatcher workers did not finish within 30s, remaining posts stay in PROCESSING");
+        }
+    }
+
+    /**
+     * Claim due posts and hand them to the worker pool. Only claims as many rows as there
+     * are idle workers, so unclaimed rows stay available to other nodes.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.dispatch.poll-interval-ms:1000}")
+    public void dispatch() {
+        int claimedCount;
+        do {
+            int limit = Math.min(batchSize, availableWorkers.availablePermits());
+            if (limit == 0) {
+                return;
+            }
+
+            List<Long> claimed = claimBatch(limit);
+            claimedCount = claimed.size();
+            if (claimedCount > 0) {
+                log.info("Claimed {} scheduled posts for dispatch", claimedCount);
+            }
+
+            for (Long scheduledPostId : claimed) {
+                availableWorkers.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        postExecutionJob.executeClaimed(scheduledPostId);
+                    } finally {
+                        availableWorkers.release();
+                    }
+                });
+            }
+            // A full batch means more posts are probably due, keep draining
+        } while (claimedCount == batchSize);
+    }
+
+    /**
+     * Lock up to {@code limit} due posts, mark them PROCESSING under a lease and commit, releasing the row locks
+     */
+    private List<Long> claimBatch(int limit) {
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseExpiresAt = now.plusNanos(leaseMs * 1_000_000);
+            List<ScheduledPost> ready = scheduledPostRepository.findReadyPostsForUpdate(
+                    now, PostStatus.PENDING, PageRequest.of(0, limit));
+            ready.forEach(post -> {
+                post.setStatus(PostStatus.PROCESSING);
+                post.setLeaseOwner(nodeIdentity.getNodeId());
+                post.setLeaseExpiresAt(leaseExpiresAt);
+            });
+            scheduledPostRepository.saveAll(ready);
+            return ready.stream().map(ScheduledPost::getId).collect(Collectors.toList());
+        });
+        return claimed != null ? claimed : List.of();
+    }
+}
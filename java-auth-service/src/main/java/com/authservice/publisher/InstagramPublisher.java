@@ -0,0 +1,332 @@
+package com.authservice.publisher;
+
+import com.authservice.config.PlatformEndpoints;
+import com.authservice.entity.Profile;
+import com.authservice.enums.PlatformType;
+import com.authservice.exception.PlatformApiException;
+import com.authservice.service.InstagramAccountService;
+import com.authservice.service.PlatformRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes single-image posts through the Instagram Graph API (media container, then media_publish).
+ * Graph fetches the image from its URL, so nothing is uploaded from here. publishAsync runs the
+ * same two calls on the reactive engine's WebClient.
+ */
+@Component
+@Slf4j
+public class InstagramPublisher implements PlatformPublisher {
+
+    // The call that makes the post public; everything before it can be retried without posting twice
+    private static final String PUBLISH_ENDPOINT = "media-publish";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final PlatformRateLimiter rateLimiter;
+    private final InstagramAccountService instagramAccountService;
+    private final PlatformEndpoints endpoints;
+    private final PublisherCapabilities capabilities = new PublisherCapabilities();
+
+    @Value("${instagram.graph.api.version:v18.0}")
+    private String instagramApiVersion;
+
+    @Value("${publishing.platforms.instagram.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${publishing.timeout.instagram-ms:${publishing.timeout.default-ms:30000}}")
+    private long timeoutMs;
+
+    @Value("${publishing.platforms.instagram.max-content-length:2200}")
+    private int maxContentLength;
+
+    @Value("${publishing.platforms.instagram.max-media-bytes:8388608}")
+    private long maxMediaBytes;
+
+    // Present only with publishing.engine=reactive
+    @Autowired(required = false)
+    private WebClient platformWebClient;
+
+    public InstagramPublisher(RestTemplate platformRestTemplate, PlatformRateLimiter rateLimiter,
+                              InstagramAccountService instagramAccountService, PlatformEndpoints endpoints) {
+        this.restTemplate = platformRestTemplate;
+        this.objectMapper = new ObjectMapper();
+        this.rateLimiter = rateLimiter;
+        this.instagramAccountService = instagramAccountService;
+        this.endpoints = endpoints;
+    }
+
+    @PostConstruct
+    void initCapabilities() {
+        capabilities.setMaxConcurrent(maxConcurrent);
+        capabilities.setTimeout(Duration.ofMillis(timeoutMs));
+        capabilities.setMaxContentLength(maxContentLength);
+        capabilities.setMaxMediaBytes(maxMediaBytes);
+        capabilities.setMediaRequired(true);
+        capabilities.setMediaUploaded(false);
+    }
+
+    @Override
+    public PlatformType getPlatform() {
+        return PlatformType.INSTAGRAM;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Instagram";
+    }
+
+    @Override
+    public PublisherCapabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public String publish(PublishRequest request) throws Exception {
+        String prefetchedAccountId = request.getPrepared() != null ? request.getPrepared().getInstagramAccountId() : null;
+        return postToInstagramWithContent(request.getContent(), request.getImageUrl(),
+                request.getProfile().getAccessToken(), request.getProfile(), prefetchedAccountId, request);
+    }
+
+    /**
+     * Common Instagram posting logic.
+     * The business account ID comes from the profile (cached in memory); if Graph rejects it with an
+     * auth error the ID is resolved again and the post retried once under the new ID.
+     */
+    private String postToInstagramWithContent(String content, String imageUrl, String accessToken, Profile profile,
+                                              String prefetchedAccountId, PublishRequest publish) throws Exception {
+        String accountId = prefetchedAccountId != null ? prefetchedAccountId : instagramAccountService.getAccountId(profile);
+
+        try {
+            return publishInstagramMedia(content, imageUrl, accessToken, accountId, publish);
+        } catch (HttpStatusCodeException e) {
+            if (!instagramAccountService.isGraphAuthError(e.getResponseBodyAsString())) {
+                throw e;
+            }
+            String refreshedAccountId = instagramAccountService.refresh(profile);
+            if (refreshedAccountId.equals(accountId)) {
+                throw e;
+            }
+            log.warn("Instagram account ID for profile {} changed from {} to {}, retrying",
+                    profile.getId(), accountId, refreshedAccountId);
+            return publishInstagramMedia(content, imageUrl, accessToken, refreshedAccountId, publish);
+        }
+    }
+
+    /**
+     * Create the media container and publish it under the given business account
+     */
+    private String publishInstagramMedia(String content, String imageUrl, String accessToken, String accountId,
+                                         PublishRequest publish) throws Exception {
+        // Step 1: Create media container
+        String createMediaUrl = endpoints.graphUrl(instagramApiVersion, accountId + "/media");
+        
+        // Form bodies must be a MultiValueMap, RestTemplate has no form converter for a plain Map
+        MultiValueMap<String, String> mediaParams = new LinkedMultiValueMap<>();
+        mediaParams.add("image_url", imageUrl);
+        mediaParams.add("caption", content);
+        mediaParams.add("access_token", accessToken);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        HttpEntity<MultiValueMap<String, String>> mediaEntity = new HttpEntity<>(mediaParams, headers);
+        
+        ResponseEntity<String> mediaResponse = exchangeGraph(
+                createMediaUrl,
+                HttpMethod.POST,
+                mediaEntity,
+                "media",
+                publish
+        );
+        
+        if (!mediaResponse.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Failed to create Instagram media container: " + mediaResponse.getBody());
+        }
+        
+        JsonNode mediaJson = objectMapper.readTree(mediaResponse.getBody());
+        String creationId = mediaJson.get("id").asText();
+        log.info("Created Instagram media container. Creation ID: {}", creationId);
+        
+        // Step 2: Publish the media
+        String publishUrl = endpoints.graphUrl(instagramApiVersion, accountId + "/media_publish");
+        
+        MultiValueMap<String, String> publishParams = new LinkedMultiValueMap<>();
+        publishParams.add("creation_id", creationId);
+        publishParams.add("access_token", accessToken);
+        
+        HttpEntity<MultiValueMap<String, String>> publishEntity = new HttpEntity<>(publishParams, headers);
+        
+        ResponseEntity<String> publishResponse = exchangeGraph(
+                publishUrl,
+                HttpMethod.POST,
+                publishEntity,
+                PUBLISH_ENDPOINT,
+                publish
+        );
+        
+        if (!publishResponse.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Failed to publish Instagram post: " + publishResponse.getBody());
+        }
+        
+        JsonNode publishJson = objectMapper.readTree(publishResponse.getBody());
+        String postId = publishJson.get("id").asText();
+        log.info("Successfully posted to Instagram. Post ID: {}", postId);
+        return postId;
+    }
+
+    /**
+     * Execute a Graph API request under the rate limiter, retrying once after a throttling error
+     */
+    private ResponseEntity<String> exchangeGraph(String url, HttpMethod method, HttpEntity<?> entity,
+                                                 String endpoint, PublishRequest publish) {
+        String rateLimitAccount = String.valueOf(publish.getProfile().getId());
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire("instagram", endpoint, rateLimitAccount, publish.getDeadline());
+            if (PUBLISH_ENDPOINT.equals(endpoint)) {
+                publish.markFinalCallSent();
+            }
+
+            try {
+                ResponseEntity<String> response = restTemplate.exchange(url, method, entity, String.class);
+                rateLimiter.onGraphResponse(endpoint, rateLimitAccount, false, response.getHeaders().toSingleValueMap());
+                return response;
+            } catch (HttpStatusCodeException e) {
+                boolean throttled = e.getStatusCode().value() == 429
+                        || rateLimiter.isGraphThrottleError(e.getResponseBodyAsString());
+                HttpHeaders responseHeaders = e.getResponseHeaders();
+                rateLimiter.onGraphResponse(endpoint, rateLimitAccount, throttled,
+                        responseHeaders != null ? responseHeaders.toSingleValueMap() : Map.of());
+
+                if (!throttled || attempt >= 2) {
+                    throw e;
+                }
+                log.warn("Graph {} throttled, waiting for the rate limit to recover", endpoint);
+            }
+        }
+    }
+
+    @Override
+    public Mono<String> publishAsync(PublishRequest request) {
+        if (platformWebClient == null) {
+            return PlatformPublisher.super.publishAsync(request);
+        }
+        Profile profile = request.getProfile();
+        String prefetchedAccountId = request.getPrepared() != null ? request.getPrepared().getInstagramAccountId() : null;
+        String accessToken = profile.getAccessToken();
+
+        // The account lookup only blocks on a cache miss
+        Mono<String> accountId = prefetchedAccountId != null
+                ? Mono.just(prefetchedAccountId)
+                : Mono.fromCallable(() -> instagramAccountService.getAccountId(profile))
+                        .subscribeOn(Schedulers.boundedElastic());
+
+        return accountId.flatMap(id -> publishInstagramMediaAsync(request.getContent(), request.getImageUrl(),
+                        accessToken, id, request)
+                .onErrorResume(PlatformApiException.class, e -> {
+                    if (!instagramAccountService.isGraphAuthError(e.getResponseBody())) {
+                        return Mono.error(e);
+                    }
+                    return Mono.fromCallable(() -> instagramAccountService.refresh(profile))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(refreshedId -> {
+                                if (refreshedId.equals(id)) {
+                                    return Mono.error(e);
+                                }
+                                log.warn("Instagram account ID for profile {} changed from {} to {}, retrying",
+                                        profile.getId(), id, refreshedId);
+                                return publishInstagramMediaAsync(request.getContent(), request.getImageUrl(),
+                                        accessToken, refreshedId, request);
+                            });
+                }));
+    }
+
+    private Mono<String> publishInstagramMediaAsync(String content, String imageUrl, String accessToken,
+                                                    String accountId, PublishRequest publish) {
+        MultiValueMap<String, String> mediaParams = new LinkedMultiValueMap<>();
+        mediaParams.add("image_url", imageUrl);
+        mediaParams.add("caption", content);
+        mediaParams.add("access_token", accessToken);
+
+        String createMediaUrl = endpoints.graphUrl(instagramApiVersion, accountId + "/media");
+        String publishUrl = endpoints.graphUrl(instagramApiVersion, accountId + "/media_publish");
+
+        return exchangeGraphAsync(createMediaUrl, mediaParams, "media", publish, 1)
+                .map(body -> readJson(body).get("id").asText())
+                .doOnNext(creationId -> log.info("Created Instagram media container. Creation ID: {}", creationId))
+                .flatMap(creationId -> {
+                    MultiValueMap<String, String> publishParams = new LinkedMultiValueMap<>();
+                    publishParams.add("creation_id", creationId);
+                    publishParams.add("access_token", accessToken);
+                    return exchangeGraphAsync(publishUrl, publishParams, PUBLISH_ENDPOINT, publish, 1);
+                })
+                .map(body -> {
+                    String postId = readJson(body).get("id").asText();
+                    log.info("Successfully posted to Instagram. Post ID: {}", postId);
+                    return postId;
+                });
+    }
+
+    /**
+     * Non-blocking exchangeGraph: POST a form on WebClient under the rate limiter, retrying once
+     * after a throttling error
+     */
+    private Mono<String> exchangeGraphAsync(String url, MultiValueMap<String, String> form, String endpoint,
+                                            PublishRequest publish, int attempt) {
+        String rateLimitAccount = String.valueOf(publish.getProfile().getId());
+        return rateLimiter.acquireAsync("instagram", endpoint, rateLimitAccount, publish.getDeadline())
+                .then(Mono.fromRunnable(() -> {
+                    if (PUBLISH_ENDPOINT.equals(endpoint)) {
+                        publish.markFinalCallSent();
+                    }
+                }))
+                .then(platformWebClient.post()
+                        .uri(url)
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .body(BodyInserters.fromFormData(form))
+                        .exchangeToMono(response -> response.bodyToMono(String.class).defaultIfEmpty("")
+                                .map(body -> new PlatformResponse(response.statusCode().value(),
+                                        response.headers().asHttpHeaders().toSingleValueMap(), body))))
+                .flatMap(response -> {
+                    boolean success = response.code() >= 200 && response.code() < 300;
+                    boolean throttled = !success
+                            && (response.code() == 429 || rateLimiter.isGraphThrottleError(response.body()));
+                    rateLimiter.onGraphResponse(endpoint, rateLimitAccount, throttled, response.headers());
+
+                    if (success) {
+                        return Mono.just(response.body());
+                    }
+                    if (throttled && attempt < 2) {
+                        log.warn("Graph {} throttled, waiting for the rate limit to recover", endpoint);
+                        return exchangeGraphAsync(url, form, endpoint, publish, attempt + 1);
+                    }
+                    return Mono.error(new PlatformApiException("Graph " + endpoint + " failed: " + response.code()
+                            + " - " + response.body(), response.code(), response.body()));
+                });
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid platform response: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.authservice.publisher;
+
+import com.authservice.enums.PlatformType;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Publishing adapter for one platform.
+ *
+ * Implementations are Spring beans picked up by PlatformPublisherRegistry. Adding a platform
+ * means adding an adapter; PostExecutionService (and ReactivePostExecutionService with
+ * publishing.engine=reactive) routes to it by PlatformType, validates the request against
+ * {@link #getCapabilities()} and wraps every call in the platform's circuit breaker and bulkhead.
+ */
+public interface PlatformPublisher {
+
+    PlatformType getPlatform();
+
+    /**
+     * Name used in log and error messages
+     */
+    String getDisplayName();
+
+    /**
+     * Limits and features of this platform, used to validate, time out and throttle its publishes
+     */
+    PublisherCapabilities getCapabilities();
+
+    /**
+     * Publish one post
+     * @return Platform-specific post ID
+     * @throws com.authservice.exception.PublishDeferredException to retry later without spending an attempt
+     */
+    String publish(PublishRequest request) throws Exception;
+
+    /**
+     * Publish one post without blocking, for the reactive engine. Adapters without a non-blocking
+     * flow run {@link #publish} on boundedElastic.
+     * @return Mono of the platform-specific post ID
+     */
+    default Mono<String> publishAsync(PublishRequest request) {
+        return Mono.fromCallable(() -> publish(request)).subscribeOn(Schedulers.boundedElastic());
+    }
+}
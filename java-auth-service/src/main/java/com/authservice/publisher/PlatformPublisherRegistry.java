@@ -0,0 +1,63 @@
+package com.authservice.publisher;
+
+import com.authservice.enums.PlatformType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Platform adapters by PlatformType, collected from every PlatformPublisher bean
+ */
+@Component
+@Slf4j
+public class PlatformPublisherRegistry {
+
+    private final Map<PlatformType, PlatformPublisher> publishers = new EnumMap<>(PlatformType.class);
+
+    public PlatformPublisherRegistry(List<PlatformPublisher> adapters) {
+        for (PlatformPublisher adapter : adapters) {
+            PlatformPublisher existing = publishers.put(adapter.getPlatform(), adapter);
+            if (existing != null) {
+                throw new IllegalStateException("Two publishers for " + adapter.getPlatform() + ": "
+                        + existing.getClass().getSimpleName() + " and " + adapter.getClass().getSimpleName());
+            }
+        }
+        log.info("Registered platform publishers for {}", publishers.keySet());
+    }
+
+    public Optional<PlatformPublisher> find(PlatformType platform) {
+        return Optional.ofNullable(publishers.get(platform));
+    }
+
+    /**
+     * Publisher for a platform name as stored on posts ("x", "twitter", "instagram", ...)
+     */
+    public Optional<PlatformPublisher> find(String platform) {
+        String name = platform.toLowerCase();
+        if ("twitter".equals(name)) {
+            name = PlatformType.X.getValue();
+        }
+        try {
+            return find(PlatformType.valueOf(name.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if no adapter handles the platform
+     */
+    public PlatformPublisher get(String platform) {
+        return find(platform).orElseThrow(() -> new IllegalArgumentException("Unsupported platform: " + platform));
+    }
+
+    public Set<PlatformType> getSupportedPlatforms() {
+        return Collections.unmodifiableSet(publishers.keySet());
+    }
+}
@@ -0,0 +1,9 @@
+package com.authservice.publisher;
+
+import java.util.Map;
+
+/**
+ * Status, headers and body of a platform API response read on WebClient
+ */
+record PlatformResponse(int code, Map<String, String> headers, String body) {
+}
@@ -0,0 +1,70 @@
+package com.authservice.publisher;
+
+import com.authservice.entity.Profile;
+import com.authservice.service.PreparedPublish;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One post to publish on one platform
+ */
+@Data
+@NoArgsConstructor
+public class PublishRequest {
+
+    private String content;
+    private String imageUrl;
+    private Profile profile;
+    private PreparedPublish prepared;   // Staged by PublishPrefetcher, null to resolve everything now
+
+    // Epoch millis by which the whole publish must be done; rate-limit waits and media polling
+    // give up instead of running past it
+    private long deadline = Long.MAX_VALUE;
+
+    // Whether the call that makes the post public has gone out, handed over between publisher and caller
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicReference<FinalCall> finalCall = new AtomicReference<>(FinalCall.PENDING);
+
+    private enum FinalCall { PENDING, SENT, ABANDONED }
+
+    public PublishRequest(String content, String imageUrl, Profile profile, PreparedPublish prepared) {
+        this.content = content;
+        this.imageUrl = imageUrl;
+        this.profile = profile;
+        this.prepared = prepared;
+    }
+
+    public boolean hasImage() {
+        return imageUrl != null && !imageUrl.isEmpty();
+    }
+
+    /**
+     * Called by the publisher right before the non-idempotent call that makes the post public
+     * (POST /2/tweets, media_publish), after any rate-limit wait
+     * @throws IllegalStateException if the caller already gave up on this publish, so it can be retried safely
+     */
+    public void markFinalCallSent() {
+        if (!finalCall.compareAndSet(FinalCall.PENDING, FinalCall.SENT) && finalCall.get() == FinalCall.ABANDONED) {
+            throw new IllegalStateException("Publish was abandoned after its timeout, not sending it");
+        }
+    }
+
+    /**
+     * Called by the caller when it stops waiting: from here on the final call is not sent any more
+     * @return true if the final call was already sent, so the post may have gone public
+     */
+    public boolean abandon() {
+        finalCall.compareAndSet(FinalCall.PENDING, FinalCall.ABANDONED);
+        return finalCall.get() == FinalCall.SENT;
+    }
+}
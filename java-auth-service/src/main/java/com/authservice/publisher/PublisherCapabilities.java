@@ -0,0 +1,21 @@
+package com.authservice.publisher;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * What a platform adapter can handle and how hard it may be driven
+ */
+@Data
+@NoArgsConstructor
+public class PublisherCapabilities {
+
+    private int maxConcurrent = 4;                  // Bulkhead size unless publishing.resilience overrides it
+    private Duration timeout = Duration.ofSeconds(30); // Per-publish timeout in PostExecutionJob
+    private int maxContentLength;                   // Longest text / caption accepted, 0 for no limit
+    private long maxMediaBytes;                     // Largest media file accepted, 0 for no limit
+    private boolean mediaRequired;                  // Posts without an image are rejected
+    private boolean mediaUploaded;                  // Media bytes are uploaded by us, not fetched by the platform
+}
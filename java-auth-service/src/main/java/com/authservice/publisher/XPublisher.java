@@ -0,0 +1,663 @@
+package com.authservice.publisher;
+
+import com.authservice.config.PlatformEndpoints;
+import com.authservice.enums.PlatformType;
+import com.authservice.exception.PlatformApiException;
+import com.authservice.exception.PublishDeferredException;
+import com.authservice.service.MediaCache;
+import com.authservice.service.PlatformRateLimiter;
+import com.authservice.util.PooledOAuthHttpClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.scribejava.core.builder.ServiceBuilder;
+import com.github.scribejava.core.httpclient.multipart.FileByteArrayBodyPartPayload;
+import com.github.scribejava.core.httpclient.multipart.MultipartUtils;
+import com.github.scribejava.core.model.OAuth1AccessToken;
+import com.github.scribejava.core.model.OAuthRequest;
+import com.github.scribejava.core.model.Response;
+import com.github.scribejava.core.model.Verb;
+import com.github.scribejava.core.oauth.OAuth10aService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes tweets through the X API v2 with OAuth 1.0a user tokens, uploading media with the
+ * chunked v1.1 media endpoint.
+ *
+ * publish runs the flow blocking on the pooled Apache client. publishAsync runs the same flow as
+ * a Mono chain on the reactive engine's WebClient, with rate limit waits and processing polls on
+ * timers, so a publish holds no thread while it waits on the network.
+ */
+@Component
+@Slf4j
+public class XPublisher implements PlatformPublisher {
+
+    public static final int MEDIA_SNIFF_BYTES = 12;
+
+    private final ObjectMapper objectMapper;
+    private final PlatformRateLimiter rateLimiter;
+    private final MediaCache mediaCache;
+    private final PooledOAuthHttpClient twitterHttpClient;
+    private final PlatformEndpoints endpoints;
+    private final PublisherCapabilities capabilities = new PublisherCapabilities();
+
+    // Built on first use so a missing X API key only fails X publishes, not startup
+    private volatile OAuth10aService twitterService;
+
+    @Value("${twitter.api.key:${X_API_KEY:}}")
+    private String twitterApiKey;
+
+    @Value("${twitter.api.secret:${X_API_SECRET:}}")
+    private String twitterApiSecret;
+
+    @Value("${publishing.media.chunk-bytes:1048576}")
+    private int mediaChunkBytes;
+
+    // Kept below the publish timeout, so a slow video ends in an upload error rather than a timed-out publish
+    @Value("${publishing.media.processing-timeout-ms:20000}")
+    private long mediaProcessingTimeoutMs;
+
+    @Value("${publishing.media.max-upload-bytes:536870912}")
+    private long maxUploadBytes;
+
+    @Value("${publishing.platforms.x.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${publishing.timeout.x-ms:${publishing.timeout.default-ms:30000}}")
+    private long timeoutMs;
+
+    // Premium accounts may post up to 25,000 characters; X rejects longer posts from other accounts itself
+    @Value("${publishing.platforms.x.max-content-length:25000}")
+    private int maxContentLength;
+
+    // Present only with publishing.engine=reactive
+    @Autowired(required = false)
+    private WebClient platformWebClient;
+
+    public XPublisher(PooledOAuthHttpClient twitterHttpClient, PlatformRateLimiter rateLimiter, MediaCache mediaCache,
+                      PlatformEndpoints endpoints) {
+        this.twitterHttpClient = twitterHttpClient;
+        this.objectMapper = new ObjectMapper();
+        this.rateLimiter = rateLimiter;
+        this.mediaCache = mediaCache;
+        this.endpoints = endpoints;
+    }
+
+    @PostConstruct
+    void initCapabilities() {
+        capabilities.setMaxConcurrent(maxConcurrent);
+        capabilities.setTimeout(Duration.ofMillis(timeoutMs));
+        capabilities.setMaxContentLength(maxContentLength);
+        capabilities.setMaxMediaBytes(maxUploadBytes);
+        capabilities.setMediaRequired(false);
+        capabilities.setMediaUploaded(true);
+    }
+
+    @Override
+    public PlatformType getPlatform() {
+        return PlatformType.X;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Twitter/X";
+    }
+
+    @Override
+    public PublisherCapabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public String publish(PublishRequest request) throws Exception {
+        // Parse access tokens (stored as "accessToken:accessSecret")
+        String[] tokens = request.getProfile().getAccessToken().split(":");
+        if (tokens.length != 2) {
+            throw new IllegalArgumentException("Invalid Twitter access token format in profile. Expected format: 'accessToken:accessSecret'");
+        }
+
+        MediaCache.CachedMedia prefetchedMedia = request.getPrepared() != null ? request.getPrepared().getMedia() : null;
+        return postToTwitterWithOAuth(request.getContent(), request.getImageUrl(), prefetchedMedia,
+                tokens[0], tokens[1], request);
+    }
+
+    /**
+     * Post to Twitter using OAuth 1.0a with ScribeJava
+     */
+    private String postToTwitterWithOAuth(String content, String imageUrl, MediaCache.CachedMedia prefetchedMedia,
+                                          String accessToken, String accessSecret,
+                                          PublishRequest publish) throws Exception {
+        log.info("postToTwitterWithOAuth called with imageUrl: {}", imageUrl != null ? imageUrl : "null");
+        
+        OAuth10aService service = twitterService();
+
+        // Create access token
+        OAuth1AccessToken oauthToken = new OAuth1AccessToken(accessToken, accessSecret);
+
+        // Handle image upload if present
+        List<String> mediaIds = new ArrayList<>();
+        if (imageUrl != null && !imageUrl.isEmpty()) {
+            log.info("Attempting to upload image to Twitter from URL: {}", imageUrl);
+            try {
+                String mediaId = uploadImageToTwitter(imageUrl, prefetchedMedia, service, oauthToken, publish);
+                if (mediaId != null) {
+                    mediaIds.add(mediaId);
+                    log.info("Successfully uploaded image to Twitter. Media ID: {}", mediaId);
+                } else {
+                    log.warn("Image upload returned null media ID");
+                }
+            } catch (PublishDeferredException | IllegalArgumentException e) {
+                // Deferred, or media over the size limit: do not post without it
+                throw e;
+            } catch (Exception e) {
+                log.error("Failed to upload image to Twitter, posting without image: {}", e.getMessage(), e);
+                // Continue without image - image is optional for Twitter
+            }
+        } else {
+            log.info("No image URL provided, posting text-only tweet");
+        }
+
+        String jsonBody = buildTweetBody(content, mediaIds);
+
+        // Create, sign and execute request
+        Response response = executeTwitterRequest(service, oauthToken, () -> {
+            publish.markFinalCallSent();
+            OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xTweetsUrl());
+            request.addHeader("Content-Type", "application/json");
+            request.setPayload(jsonBody);
+            return request;
+        }, "tweets", publish);
+
+        if (response.getCode() == 200 || response.getCode() == 201) {
+            JsonNode responseJson = objectMapper.readTree(response.getBody());
+            String tweetId = responseJson.get("data").get("id").asText();
+            log.info("Successfully posted to Twitter/X. Tweet ID: {}", tweetId);
+            return tweetId;
+        } else {
+            throw new PlatformApiException("Twitter API error: " + response.getCode() + " - " + response.getBody(),
+                    response.getCode(), response.getBody());
+        }
+    }
+
+    /**
+     * JSON body for POST /2/tweets, with media_ids if media was uploaded
+     */
+    String buildTweetBody(String content, List<String> mediaIds) throws JsonProcessingException {
+        Map<String, Object> tweetBody = new HashMap<>();
+        tweetBody.put("text", content);
+
+        if (!mediaIds.isEmpty()) {
+            Map<String, Object> media = new HashMap<>();
+            media.put("media_ids", mediaIds);
+            tweetBody.put("media", media);
+        }
+        return objectMapper.writeValueAsString(tweetBody);
+    }
+
+    /**
+     * Shared OAuth service for the app's X API key, executing requests on the pooled HTTP client
+     */
+    private OAuth10aService twitterService() {
+        OAuth10aService service = twitterService;
+        if (service == null) {
+            synchronized (this) {
+                service = twitterService;
+                if (service == null) {
+                    service = new ServiceBuilder(twitterApiKey)
+                            .apiSecret(twitterApiSecret)
+                            .httpClient(twitterHttpClient)
+                            .build(com.github.scribejava.apis.TwitterApi.instance());
+                    twitterService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Upload image (or GIF / video) to Twitter with the chunked INIT / APPEND / FINALIZE flow and return media_id.
+     * The media comes from the on-disk media cache (downloaded only on a miss) and is read
+     * memory-mapped in fixed-size chunks, so heap use per upload is bounded by the chunk size.
+     * @param imageUrl URL of the image to upload
+     * @param prefetchedMedia Media cached ahead of fire time, or null to look it up now
+     * @param service OAuth service for signing requests
+     * @param oauthToken OAuth access token
+     * @return media_id_string from Twitter
+     */
+    private String uploadImageToTwitter(String imageUrl, MediaCache.CachedMedia prefetchedMedia, OAuth10aService service,
+                                        OAuth1AccessToken oauthToken, PublishRequest publish) throws Exception {
+        log.info("Uploading image to Twitter from URL: {}", imageUrl);
+        
+        try {
+            // Repeat URLs and retries are served from the cache without touching the origin
+            MediaCache.CachedMedia media = prefetchedMedia != null && prefetchedMedia.exists()
+                    ? prefetchedMedia
+                    : mediaCache.get(imageUrl, capabilities.getMaxMediaBytes());
+            if (media == null) {
+                return null;
+            }
+
+            MappedByteBuffer content = media.map();
+            byte[] head = new byte[(int) Math.min(MEDIA_SNIFF_BYTES, media.getSize())];
+            content.get(0, head);
+            String mediaType = detectMediaType(head);
+            if (mediaType == null) {
+                log.warn("Unsupported media type for URL: {}", imageUrl);
+                return null;
+            }
+
+            return uploadMediaChunked(content, media.getSize(), mediaType, service, oauthToken, publish);
+            
+        } catch (PublishDeferredException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error uploading image to Twitter: {}", e.getMessage(), e);
+            // Don't fail the entire post if image upload fails, just log and return null
+            return null;
+        }
+    }
+
+    /**
+     * Run INIT, one APPEND per chunk and FINALIZE, then wait for server-side processing if X reports any
+     */
+    private String uploadMediaChunked(ByteBuffer content, long totalBytes, String mediaType,
+                                      OAuth10aService service, OAuth1AccessToken oauthToken,
+                                      PublishRequest publish) throws Exception {
+        String mediaCategory = mediaType.equals("image/gif") ? "tweet_gif"
+                : mediaType.startsWith("video/") ? "tweet_video" : "tweet_image";
+
+        // INIT: declare size and type, get the media ID
+        Response initResponse = executeTwitterRequest(service, oauthToken, () -> {
+            OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+            request.addParameter("command", "INIT");
+            request.addParameter("total_bytes", String.valueOf(totalBytes));
+            request.addParameter("media_type", mediaType);
+            request.addParameter("media_category", mediaCategory);
+            return request;
+        }, "media-upload", publish);
+        requireMediaSuccess(initResponse, "INIT");
+        String mediaId = objectMapper.readTree(initResponse.getBody()).get("media_id_string").asText();
+        log.info("Initialized chunked upload of {} bytes ({}), media ID: {}", totalBytes, mediaType, mediaId);
+
+        // APPEND: one multipart request per chunk; command parameters go in the query string so they are signed
+        byte[] buffer = new byte[(int) Math.max(1, Math.min(mediaChunkBytes, totalBytes))];
+        int segmentIndex = 0;
+        while (content.hasRemaining()) {
+            int length = Math.min(buffer.length, content.remaining());
+            content.get(buffer, 0, length);
+            String segment = String.valueOf(segmentIndex);
+            Response appendResponse = executeTwitterRequest(service, oauthToken, () -> {
+                OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+                request.addQuerystringParameter("command", "APPEND");
+                request.addQuerystringParameter("media_id", mediaId);
+                request.addQuerystringParameter("segment_index", segment);
+                request.initMultipartPayload();
+                request.addBodyPartPayloadInMultipartPayload(new FileByteArrayBodyPartPayload(
+                        "application/octet-stream", buffer, 0, length, "media", "media"));
+                return request;
+            }, "media-upload", publish);
+            requireMediaSuccess(appendResponse, "APPEND");
+            segmentIndex++;
+        }
+
+        // FINALIZE: X may still have to process GIFs and video
+        Response finalizeResponse = executeTwitterRequest(service, oauthToken, () -> {
+            OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+            request.addParameter("command", "FINALIZE");
+            request.addParameter("media_id", mediaId);
+            return request;
+        }, "media-upload", publish);
+        requireMediaSuccess(finalizeResponse, "FINALIZE");
+
+        awaitMediaProcessing(mediaId, objectMapper.readTree(finalizeResponse.getBody()).path("processing_info"),
+                service, oauthToken, publish);
+        log.info("Uploaded media {} in {} chunks", mediaId, segmentIndex);
+        return mediaId;
+    }
+
+    /**
+     * Poll STATUS until X has finished processing the media
+     */
+    private void awaitMediaProcessing(String mediaId, JsonNode processingInfo, OAuth10aService service,
+                                      OAuth1AccessToken oauthToken, PublishRequest publish) throws Exception {
+        long deadline = Math.min(System.currentTimeMillis() + mediaProcessingTimeoutMs, publish.getDeadline());
+
+        while (!processingInfo.isMissingNode()) {
+            String state = processingInfo.path("state").asText();
+            if ("succeeded".equals(state)) {
+                return;
+            }
+            if ("failed".equals(state)) {
+                throw new RuntimeException("Twitter media processing failed: " + processingInfo.path("error"));
+            }
+
+            long waitMs = Math.max(1, processingInfo.path("check_after_secs").asLong(1)) * 1000;
+            if (System.currentTimeMillis() + waitMs > deadline) {
+                throw new RuntimeException("Twitter media " + mediaId + " did not finish processing in time");
+            }
+            Thread.sleep(waitMs);
+
+            Response statusResponse = executeTwitterRequest(service, oauthToken, () -> {
+                OAuthRequest request = new OAuthRequest(Verb.GET, endpoints.xMediaUploadUrl());
+                request.addQuerystringParameter("command", "STATUS");
+                request.addQuerystringParameter("media_id", mediaId);
+                return request;
+            }, "media-upload", publish);
+            requireMediaSuccess(statusResponse, "STATUS");
+            processingInfo = objectMapper.readTree(statusResponse.getBody()).path("processing_info");
+        }
+    }
+
+    private void requireMediaSuccess(Response response, String command) throws Exception {
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            throw new PlatformApiException("Twitter media " + command + " failed: " + response.getCode() + " - "
+                    + response.getBody(), response.getCode(), response.getBody());
+        }
+    }
+
+    /**
+     * Media type from the file's magic number, or null if it is not a format X accepts
+     */
+    public static String detectMediaType(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (head.length >= 4 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (head.length >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "image/gif";
+        }
+        if (head.length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (head.length >= 8 && head[4] == 'f' && head[5] == 't' && head[6] == 'y' && head[7] == 'p') {
+            return "video/mp4";
+        }
+        return null;
+    }
+
+    /**
+     * Sign and execute an X API request under the rate limiter.
+     * A 429 blocks the bucket until the reported reset and the request is retried once with a
+     * fresh signature, so the wait happens in the limiter instead of costing a publish attempt.
+     * The request factory runs once a token was taken, right before the request goes out.
+     */
+    private Response executeTwitterRequest(OAuth10aService service, OAuth1AccessToken oauthToken,
+                                           Supplier<OAuthRequest> requestFactory,
+                                           String endpoint, PublishRequest publish) throws Exception {
+        String rateLimitAccount = String.valueOf(publish.getProfile().getId());
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire("x", endpoint, rateLimitAccount, publish.getDeadline());
+
+            OAuthRequest request = requestFactory.get();
+            service.signRequest(oauthToken, request);
+            Response response = service.execute(request);
+            rateLimiter.onTwitterResponse(endpoint, rateLimitAccount, response.getCode(), response.getHeaders());
+
+            if (response.getCode() != 429 || attempt >= 2) {
+                return response;
+            }
+            log.warn("X {} returned 429, waiting for the rate limit to reset", endpoint);
+        }
+    }
+
+    @Override
+    public Mono<String> publishAsync(PublishRequest request) {
+        if (platformWebClient == null) {
+            return PlatformPublisher.super.publishAsync(request);
+        }
+        // Parse access tokens (stored as "accessToken:accessSecret")
+        String[] tokens = request.getProfile().getAccessToken().split(":");
+        if (tokens.length != 2) {
+            return Mono.error(new IllegalArgumentException(
+                    "Invalid Twitter access token format in profile. Expected format: 'accessToken:accessSecret'"));
+        }
+        OAuth1AccessToken oauthToken = new OAuth1AccessToken(tokens[0], tokens[1]);
+        MediaCache.CachedMedia prefetchedMedia = request.getPrepared() != null ? request.getPrepared().getMedia() : null;
+
+        Mono<List<String>> mediaIds = !request.hasImage()
+                ? Mono.just(List.of())
+                : uploadImageToTwitterAsync(request.getImageUrl(), prefetchedMedia, oauthToken, request)
+                        .map(List::of)
+                        .defaultIfEmpty(List.of())
+                        // Image is optional for Twitter, post without it unless the upload was deferred or too large
+                        .onErrorResume(e -> !(e instanceof PublishDeferredException)
+                                && !(e instanceof IllegalArgumentException), e -> {
+                            log.error("Failed to upload image to Twitter, posting without image: {}", e.getMessage());
+                            return Mono.just(List.of());
+                        });
+
+        return mediaIds
+                .flatMap(ids -> Mono.fromCallable(() -> buildTweetBody(request.getContent(), ids)))
+                .flatMap(jsonBody -> executeTwitterRequestAsync(oauthToken, () -> {
+                    request.markFinalCallSent();
+                    OAuthRequest tweet = new OAuthRequest(Verb.POST, endpoints.xTweetsUrl());
+                    tweet.addHeader("Content-Type", "application/json");
+                    tweet.setPayload(jsonBody);
+                    return tweet;
+                }, "tweets", request))
+                .map(response -> {
+                    if (response.code() != 200 && response.code() != 201) {
+                        throw new PlatformApiException("Twitter API error: " + response.code() + " - " + response.body(),
+                                response.code(), response.body());
+                    }
+                    String tweetId = readJson(response.body()).get("data").get("id").asText();
+                    log.info("Successfully posted to Twitter/X. Tweet ID: {}", tweetId);
+                    return tweetId;
+                });
+    }
+
+    /**
+     * Non-blocking upload of the cached media, completing empty if the media type is not supported.
+     * Only the media cache (local disk, or a download on a miss) runs on boundedElastic.
+     */
+    private Mono<String> uploadImageToTwitterAsync(String imageUrl, MediaCache.CachedMedia prefetchedMedia,
+                                                   OAuth1AccessToken oauthToken, PublishRequest publish) {
+        return Mono.fromCallable(() -> prefetchedMedia != null && prefetchedMedia.exists()
+                        ? prefetchedMedia
+                        : mediaCache.get(imageUrl, capabilities.getMaxMediaBytes()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(media -> {
+                    MappedByteBuffer content;
+                    try {
+                        content = media.map();
+                    } catch (IOException e) {
+                        return Mono.error(e);
+                    }
+                    byte[] head = new byte[(int) Math.min(MEDIA_SNIFF_BYTES, media.getSize())];
+                    content.get(0, head);
+                    String mediaType = detectMediaType(head);
+                    if (mediaType == null) {
+                        log.warn("Unsupported media type for URL: {}", imageUrl);
+                        return Mono.empty();
+                    }
+                    return uploadMediaChunkedAsync(content, media.getSize(), mediaType, oauthToken, publish);
+                });
+    }
+
+    private Mono<String> uploadMediaChunkedAsync(MappedByteBuffer content, long totalBytes, String mediaType,
+                                                 OAuth1AccessToken oauthToken, PublishRequest publish) {
+        String mediaCategory = mediaType.equals("image/gif") ? "tweet_gif"
+                : mediaType.startsWith("video/") ? "tweet_video" : "tweet_image";
+        int chunkBytes = (int) Math.max(1, Math.min(mediaChunkBytes, totalBytes));
+        int chunkCount = (int) ((totalBytes + chunkBytes - 1) / chunkBytes);
+
+        // INIT: declare size and type, get the media ID
+        Mono<String> init = executeTwitterRequestAsync(oauthToken, () -> {
+            OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+            request.addParameter("command", "INIT");
+            request.addParameter("total_bytes", String.valueOf(totalBytes));
+            request.addParameter("media_type", mediaType);
+            request.addParameter("media_category", mediaCategory);
+            return request;
+        }, "media-upload", publish)
+                .map(response -> readJson(requireMediaSuccess(response, "INIT")).get("media_id_string").asText());
+
+        return init.flatMap(mediaId -> Flux.range(0, chunkCount)
+                // APPEND: segments must arrive in order, one request in flight per upload
+                .concatMap(segmentIndex -> {
+                    int offset = segmentIndex * chunkBytes;
+                    int length = (int) Math.min(chunkBytes, totalBytes - offset);
+                    byte[] chunk = new byte[length];
+                    content.get(offset, chunk);
+                    return executeTwitterRequestAsync(oauthToken, () -> {
+                        OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+                        request.addQuerystringParameter("command", "APPEND");
+                        request.addQuerystringParameter("media_id", mediaId);
+                        request.addQuerystringParameter("segment_index", String.valueOf(segmentIndex));
+                        request.initMultipartPayload();
+                        request.addBodyPartPayloadInMultipartPayload(new FileByteArrayBodyPartPayload(
+                                "application/octet-stream", chunk, 0, length, "media", "media"));
+                        return request;
+                    }, "media-upload", publish)
+                            .map(response -> requireMediaSuccess(response, "APPEND"));
+                })
+                .then(executeTwitterRequestAsync(oauthToken, () -> {
+                    // FINALIZE: X may still have to process GIFs and video
+                    OAuthRequest request = new OAuthRequest(Verb.POST, endpoints.xMediaUploadUrl());
+                    request.addParameter("command", "FINALIZE");
+                    request.addParameter("media_id", mediaId);
+                    return request;
+                }, "media-upload", publish))
+                .flatMap(response -> awaitMediaProcessingAsync(mediaId,
+                        readJson(requireMediaSuccess(response, "FINALIZE")).path("processing_info"),
+                        Math.min(System.currentTimeMillis() + mediaProcessingTimeoutMs, publish.getDeadline()),
+                        oauthToken, publish))
+                .doOnSuccess(ignored -> log.info("Uploaded media {} in {} chunks", mediaId, chunkCount))
+                .thenReturn(mediaId));
+    }
+
+    /**
+     * Poll STATUS on a timer until X has finished processing the media
+     */
+    private Mono<Void> awaitMediaProcessingAsync(String mediaId, JsonNode processingInfo, long deadline,
+                                                 OAuth1AccessToken oauthToken, PublishRequest publish) {
+        if (processingInfo.isMissingNode()) {
+            return Mono.empty();
+        }
+        String state = processingInfo.path("state").asText();
+        if ("succeeded".equals(state)) {
+            return Mono.empty();
+        }
+        if ("failed".equals(state)) {
+            return Mono.error(new RuntimeException("Twitter media processing failed: " + processingInfo.path("error")));
+        }
+
+        long waitMs = Math.max(1, processingInfo.path("check_after_secs").asLong(1)) * 1000;
+        if (System.currentTimeMillis() + waitMs > deadline) {
+            return Mono.error(new RuntimeException("Twitter media " + mediaId + " did not finish processing in time"));
+        }
+
+        return Mono.delay(Duration.ofMillis(waitMs))
+                .then(executeTwitterRequestAsync(oauthToken, () -> {
+                    OAuthRequest request = new OAuthRequest(Verb.GET, endpoints.xMediaUploadUrl());
+                    request.addQuerystringParameter("command", "STATUS");
+                    request.addQuerystringParameter("media_id", mediaId);
+                    return request;
+                }, "media-upload", publish))
+                .flatMap(response -> awaitMediaProcessingAsync(mediaId,
+                        readJson(requireMediaSuccess(response, "STATUS")).path("processing_info"),
+                        deadline, oauthToken, publish));
+    }
+
+    /**
+     * Non-blocking executeTwitterRequest: signed like ScribeJava would, sent on WebClient
+     */
+    private Mono<PlatformResponse> executeTwitterRequestAsync(OAuth1AccessToken oauthToken,
+                                                              Supplier<OAuthRequest> requestFactory,
+                                                              String endpoint, PublishRequest publish) {
+        return executeTwitterRequestAsync(oauthToken, requestFactory, endpoint, publish, 1);
+    }
+
+    private Mono<PlatformResponse> executeTwitterRequestAsync(OAuth1AccessToken oauthToken,
+                                                              Supplier<OAuthRequest> requestFactory,
+                                                              String endpoint, PublishRequest publish, int attempt) {
+        String rateLimitAccount = String.valueOf(publish.getProfile().getId());
+        return rateLimiter.acquireAsync("x", endpoint, rateLimitAccount, publish.getDeadline())
+                .then(Mono.defer(() -> {
+                    OAuthRequest request = requestFactory.get();
+                    twitterService().signRequest(oauthToken, request);
+                    return send(request);
+                }))
+                .flatMap(response -> {
+                    rateLimiter.onTwitterResponse(endpoint, rateLimitAccount, response.code(), response.headers());
+                    if (response.code() == 429 && attempt < 2) {
+                        log.warn("X {} returned 429, waiting for the rate limit to reset", endpoint);
+                        return executeTwitterRequestAsync(oauthToken, requestFactory, endpoint, publish, attempt + 1);
+                    }
+                    return Mono.just(response);
+                });
+    }
+
+    /**
+     * Send a signed ScribeJava request as-is: same URL, headers and body encoding ScribeJava would use
+     */
+    private Mono<PlatformResponse> send(OAuthRequest request) {
+        WebClient.RequestBodySpec spec = platformWebClient.method(HttpMethod.valueOf(request.getVerb().name()))
+                .uri(URI.create(request.getCompleteUrl()))
+                .headers(headers -> request.getHeaders().forEach(headers::set));
+
+        WebClient.RequestHeadersSpec<?> withBody = spec;
+        if (request.getStringPayload() != null) {
+            withBody = spec.bodyValue(request.getStringPayload());
+        } else if (request.getMultipartPayload() != null) {
+            byte[] payload;
+            try {
+                payload = MultipartUtils.getPayload(request.getMultipartPayload()).toByteArray();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            withBody = spec.headers(headers -> request.getMultipartPayload().getHeaders().forEach(headers::set))
+                    .bodyValue(payload);
+        } else if (request.getVerb().isPermitBody()) {
+            if (!request.getHeaders().containsKey(HttpHeaders.CONTENT_TYPE)) {
+                spec.contentType(MediaType.APPLICATION_FORM_URLENCODED);
+            }
+            withBody = spec.bodyValue(request.getByteArrayPayload());
+        }
+
+        return withBody.exchangeToMono(response -> response.bodyToMono(String.class).defaultIfEmpty("")
+                .map(body -> new PlatformResponse(response.statusCode().value(),
+                        response.headers().asHttpHeaders().toSingleValueMap(), body)));
+    }
+
+    private String requireMediaSuccess(PlatformResponse response, String command) {
+        if (response.code() < 200 || response.code() >= 300) {
+            throw new PlatformApiException("Twitter media " + command + " failed: " + response.code() + " - "
+                    + response.body(), response.code(), response.body());
+        }
+        return response.body();
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid platform response: " + e.getMessage(), e);
+        }
+    }
+}
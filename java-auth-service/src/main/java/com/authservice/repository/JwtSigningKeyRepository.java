@@ -0,0 +1,16 @@
+package com.authservice.repository;
+
+import com.authservice.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, Long> {
+
+    /**
+     * All stored keys, oldest activation first
+     */
+    List<JwtSigningKey> findAllByOrderByActivatesAtAsc();
+}
@@ -15,9 +15,10 @@ import java.util.UUID;
 public interface MetricsRepository extends JpaRepository<Metric, UUID> {
 
     /**
-     * Find all metrics for a specific post
+     * Find all metrics for a specific post, with the post fetched for serialization
      */
-    List<Metric> findAllByPostId(Long postId);
+    @Query("SELECT m FROM Metric m JOIN FETCH m.post WHERE m.post.id = :postId")
+    List<Metric> findAllByPostId(@Param("postId") Long postId);
 
     /**
      * Find metrics by post ID and metric name
@@ -30,9 +31,9 @@ public interface MetricsRepository extends JpaRepository<Metric, UUID> {
     List<Metric> findAllByPostIdAndMetricName(Long postId, String metricName);
 
     /**
-     * Find metrics for posts within a date range
+     * Find metrics for posts within a date range, with the post fetched for serialization
      */
-    @Query("SELECT m FROM Metric m WHERE m.post.id IN " +
+    @Query("SELECT m FROM Metric m JOIN FETCH m.post WHERE m.post.id IN " +
            "(SELECT p.id FROM Post p WHERE p.profile.id = :profileId) " +
            "AND m.createdAt BETWEEN :startDate AND :endDate")
     List<Metric> findByProfileIdAndDateRange(@Param("profileId") Long profileId,
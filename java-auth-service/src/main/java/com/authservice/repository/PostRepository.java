@@ -18,12 +18,13 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByProfileId(Long profileId);
 
     /**
-     * Find recent posts for a user (across all their profiles), ordered by creation date descending
+     * Find recent posts for a user (across all their profiles), ordered by creation date descending.
+     * Fetches the profile too, since callers read it after the transaction has ended.
      * @param userId The user ID
      * @param limit Maximum number of posts to return
      * @return List of recent posts
      */
-    @Query("SELECT p FROM Post p JOIN p.profile pr WHERE pr.user.id = :userId ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p JOIN FETCH p.profile pr WHERE pr.user.id = :userId ORDER BY p.createdAt DESC")
     List<Post> findRecentPostsByUserId(@Param("userId") Long userId, org.springframework.data.domain.Pageable pageable);
 
     /**
@@ -9,18 +9,13 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProfileRepository extends JpaRepository<Profile, Long> {
+public interface ProfileRepository extends JpaRepository<Profile, Long>, ProfileRepositoryCustom {
 
     /**
      * Find all profiles for a specific user
      */
     List<Profile> findByUserId(Long userId);
 
-    /**
-     * Find a specific profile by user ID and platform
-     */
-    Optional<Profile> findByUserIdAndPlatform(Long userId, PlatformType platform);
-
     /**
      * Delete a profile by user ID and platform
      */
@@ -36,5 +31,3 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      */
     long countByUserId(Long userId);
 }
-
-
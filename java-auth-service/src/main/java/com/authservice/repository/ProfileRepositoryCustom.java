@@ -0,0 +1,14 @@
+package com.authservice.repository;
+
+import com.authservice.entity.Profile;
+import com.authservice.enums.PlatformType;
+
+import java.util.Optional;
+
+public interface ProfileRepositoryCustom {
+
+    /**
+     * Find a specific profile by user ID and platform (natural ID, served from the second-level cache)
+     */
+    Optional<Profile> findByUserIdAndPlatform(Long userId, PlatformType platform);
+}
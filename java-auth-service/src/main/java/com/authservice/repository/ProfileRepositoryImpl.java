@@ -0,0 +1,33 @@
+package com.authservice.repository;
+
+import com.authservice.entity.Profile;
+import com.authservice.entity.User;
+import com.authservice.enums.PlatformType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Lookups through Hibernate's natural-id API, see UserRepositoryImpl
+ */
+@Transactional(readOnly = true)
+public class ProfileRepositoryImpl implements ProfileRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Profile> findByUserIdAndPlatform(Long userId, PlatformType platform) {
+        if (userId == null || platform == null) {
+            return Optional.empty();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        return session.byNaturalId(Profile.class)
+                .using("user", session.getReference(User.class, userId))
+                .using("platform", platform)
+                .loadOptional();
+    }
+}
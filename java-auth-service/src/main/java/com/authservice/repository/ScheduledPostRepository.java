@@ -2,10 +2,17 @@ package com.authservice.repository;
 
 import com.authservice.entity.ScheduledPost;
 import com.authservice.enums.PostStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +42,79 @@ public interface ScheduledPostRepository extends JpaRepository<ScheduledPost, Lo
     @Query("SELECT sp FROM ScheduledPost sp WHERE sp.scheduledTime <= :now AND sp.status = :status")
     List<ScheduledPost> findReadyPosts(@Param("now") LocalDateTime now, @Param("status") PostStatus status);
 
+    /**
+     * Lock a batch of ready posts for claiming by this node (SELECT ... FOR UPDATE SKIP LOCKED).
+     * Rows already locked by another node are skipped instead of waited on.
+     * Lock timeout -2 is Hibernate's LockOptions.SKIP_LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT sp FROM ScheduledPost sp WHERE sp.nextAttemptAt <= :now AND sp.status = :status ORDER BY sp.nextAttemptAt")
+    List<ScheduledPost> findReadyPostsForUpdate(@Param("now") LocalDateTime now,
+                                                @Param("status") PostStatus status,
+                                                Pageable pageable);
+
+    /**
+     * Find PENDING posts coming due within a window, soonest first (for the prefetch stage)
+     */
+    @Query("SELECT sp FROM ScheduledPost sp WHERE sp.status = com.authservice.enums.PostStatus.PENDING " +
+           "AND sp.nextAttemptAt > :from AND sp.nextAttemptAt <= :to ORDER BY sp.nextAttemptAt")
+    List<ScheduledPost> findUpcomingPosts(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Pageable pageable);
+
+    /**
+     * Atomically claim a PENDING post for publishing (PENDING -> PROCESSING with a lease).
+     * Returns 1 if this caller won the claim, 0 if another node or an earlier fire already did.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE ScheduledPost sp SET sp.status = com.authservice.enums.PostStatus.PROCESSING, " +
+           "sp.leaseOwner = :leaseOwner, sp.leaseExpiresAt = :leaseExpiresAt, sp.updatedAt = :now, " +
+           "sp.version = sp.version + 1 " +
+           "WHERE sp.id = :id AND sp.status = com.authservice.enums.PostStatus.PENDING")
+    int claimPending(@Param("id") Long id,
+                     @Param("leaseOwner") String leaseOwner,
+                     @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Store per-platform attempt state while publishing, only if this node still holds the lease
+     * and nobody has written the row since (version). Returns 0 once the lease has been lost.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledPost sp SET sp.platformAttemptsJson = :attempts, sp.updatedAt = :now, " +
+           "sp.version = sp.version + 1 " +
+           "WHERE sp.id = :id AND sp.leaseOwner = :leaseOwner AND sp.version = :version " +
+           "AND sp.status = com.authservice.enums.PostStatus.PROCESSING")
+    int saveAttempts(@Param("id") Long id,
+                     @Param("leaseOwner") String leaseOwner,
+                     @Param("version") Long version,
+                     @Param("attempts") String attempts,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Lock a batch of PROCESSING posts whose lease has expired (SELECT ... FOR UPDATE SKIP LOCKED).
+     * Rows claimed before leases existed have no expiry and count as expired once untouched since legacyBefore.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT sp FROM ScheduledPost sp WHERE sp.status = com.authservice.enums.PostStatus.PROCESSING " +
+           "AND (sp.leaseExpiresAt < :now OR (sp.leaseExpiresAt IS NULL AND sp.updatedAt < :legacyBefore)) " +
+           "ORDER BY sp.leaseExpiresAt")
+    List<ScheduledPost> findExpiredLeasesForUpdate(@Param("now") LocalDateTime now,
+                                                   @Param("legacyBefore") LocalDateTime legacyBefore,
+                                                   Pageable pageable);
+
+    /**
+     * Backfill next_attempt_at for rows created before the column existed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledPost sp SET sp.nextAttemptAt = sp.scheduledTime WHERE sp.nextAttemptAt IS NULL")
+    int backfillNextAttemptAt();
+
     /**
      * Find posts by status (for monitoring)
      */
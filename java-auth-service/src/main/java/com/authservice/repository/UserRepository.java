@@ -1,18 +1,19 @@
 package com.authservice.repository;
 
 import com.authservice.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
-    // Find user by email
-    Optional<User> findByEmail(String email);
-    
-    // Find user by Google ID
+    // Find user by Google ID (query cache, invalidated on any write to users)
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "users-by-google-id")})
     Optional<User> findByGoogleId(String googleId);
     
     // Check if email exists
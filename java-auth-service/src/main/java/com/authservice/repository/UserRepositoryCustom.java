@@ -0,0 +1,13 @@
+package com.authservice.repository;
+
+import com.authservice.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Find user by email (natural ID, served from the second-level cache)
+     */
+    Optional<User> findByEmail(String email);
+}
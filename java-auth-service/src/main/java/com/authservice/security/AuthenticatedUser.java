@@ -0,0 +1,7 @@
+package com.authservice.security;
+
+/**
+ * Principal of a request authenticated with the app's JWT
+ */
+public record AuthenticatedUser(Long userId, String email, String name, String googleId) {
+}
@@ -0,0 +1,32 @@
+package com.authservice.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the JWT-authenticated user of the current request, set by JwtAuthenticationFilter
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * @return The authenticated user, or null if the request carried no valid JWT
+     */
+    public static AuthenticatedUser get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+
+    /**
+     * @return The authenticated user's ID, or null if the request carried no valid JWT
+     */
+    public static Long getUserId() {
+        AuthenticatedUser user = get();
+        return user != null ? user.userId() : null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.authservice.security;
+
+import com.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Authenticates requests carrying the app's JWT (Authorization: Bearer, or the auth-token cookie).
+ *
+ * The token is verified once per request and the result kept in a bounded LRU cache keyed by the
+ * token's SHA-256 until the token expires, so repeat requests with the same token skip the signature
+ * check and claims parsing. The user is put in the security context as an AuthenticatedUser,
+ * read by controllers through CurrentUser. Requests without a valid token continue unauthenticated.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_COOKIE = "auth-token";
+
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache cache;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, int maxCachedTokens) {
+        this.jwtUtil = jwtUtil;
+        this.cache = new VerifiedTokenCache(maxCachedTokens);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null) {
+            AuthenticatedUser user = authenticate(token);
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.NO_AUTHORITIES);
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private AuthenticatedUser authenticate(String token) {
+        String tokenHash = sha256(token);
+        AuthenticatedUser cached = cache.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            AuthenticatedUser user = new AuthenticatedUser(
+                    claims.get("userId", Long.class),
+                    claims.get("email", String.class),
+                    claims.get("name", String.class),
+                    claims.get("googleId", String.class));
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                cache.put(tokenHash, user, expiration.getTime());
+            }
+            return user;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid or expired token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Token from the Authorization header, falling back to the auth-token cookie
+     */
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (AUTH_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Verified tokens by hash, least recently used evicted first, each dropped once its token expires
+     */
+    private static final class VerifiedTokenCache {
+
+        private final Map<String, Entry> entries;
+
+        private VerifiedTokenCache(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private synchronized AuthenticatedUser get(String tokenHash) {
+            Entry entry = entries.get(tokenHash);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMs() <= System.currentTimeMillis()) {
+                entries.remove(tokenHash);
+                return null;
+            }
+            return entry.user();
+        }
+
+        private synchronized void put(String tokenHash, AuthenticatedUser user, long expiresAtMs) {
+            entries.put(tokenHash, new Entry(user, expiresAtMs));
+        }
+
+        private record Entry(AuthenticatedUser user, long expiresAtMs) {
+        }
+    }
+}
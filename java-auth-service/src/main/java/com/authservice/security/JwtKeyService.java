@@ -0,0 +1,316 @@
+package com.authservice.security;
+
+import com.authservice.entity.JwtSigningKey;
+import com.authservice.repository.JwtSigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ES256 signing keys for JWTs, stored in jwt_signing_keys and shared by every node.
+ *
+ * A new key is created every jwt.keys.rotation-interval-ms. It is published in the JWKS right away
+ * but only signs from publish-ahead-ms later, so verifiers caching the JWKS already know it by then.
+ * A superseded key stays published until the last token it signed has expired, then is deleted.
+ * Nodes reload the key set on every check and when a token names a kid they have not seen. Two
+ * nodes rotating at once just create two keys; the later one wins and both verify.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JwtKeyService {
+
+    public static final String ALGORITHM = "ES256";
+
+    private static final String CURVE = "secp256r1";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    // P-256 coordinates are 32 bytes
+    private static final int COORDINATE_BYTES = 32;
+    private static final long UNKNOWN_KID_RELOAD_INTERVAL_MS = 10_000;
+    // HKDF info, so the wrapping key differs from any other key derived from the same secret
+    private static final String KEY_ENCRYPTION_LABEL = "authservice jwt signing key encryption v1";
+
+    private final JwtSigningKeyRepository repository;
+    private final SecureRandom random = new SecureRandom();
+
+    // Wraps the private keys at rest; defaults to jwt.secret, but only ever used through HKDF
+    @Value("${jwt.key-encryption-secret:${jwt.secret}}")
+    private String keyEncryptionSecret;
+
+    // Keys stored before jwt.key-encryption-secret were wrapped under SHA-256(jwt.secret)
+    @Value("${jwt.secret}")
+    private String legacySecret;
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    @Value("${jwt.keys.rotation-interval-ms:604800000}")
+    private long rotationIntervalMs;
+
+    // Must exceed the JWKS cache max-age (jwt.keys.jwks-max-age-ms)
+    @Value("${jwt.keys.publish-ahead-ms:3600000}")
+    private long publishAheadMs;
+
+    private volatile KeySet keys = new KeySet(List.of(), Map.of());
+    private volatile long lastReloadMs;
+    private SecretKey encryptionKey;
+    private SecretKey legacyEncryptionKey;
+
+    @PostConstruct
+    void init() {
+        try {
+            encryptionKey = hkdf(keyEncryptionSecret.getBytes(StandardCharsets.UTF_8), KEY_ENCRYPTION_LABEL);
+            legacyEncryptionKey = new SecretKeySpec(MessageDigest.getInstance("SHA-256")
+                    .digest(legacySecret.getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the JWT key encryption key", e);
+        }
+        rotate();
+    }
+
+    /**
+     * Reload the key set, create the next key when the newest is due, and drop keys no token can still use
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.check-interval-ms:300000}",
+            initialDelayString = "${jwt.keys.check-interval-ms:300000}")
+    public void rotate() {
+        LocalDateTime now = LocalDateTime.now();
+        reload();
+
+        List<LoadedKey> loaded = keys.ordered();
+        LoadedKey newest = loaded.isEmpty() ? null : loaded.get(loaded.size() - 1);
+        if (getSigningKey() == null) {
+            createKey(now);
+        } else if (!newest.createdAt().plusNanos(TimeUnit.MILLISECONDS.toNanos(rotationIntervalMs)).isAfter(now)) {
+            createKey(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(publishAheadMs)));
+        }
+
+        deleteExpiredKeys(now);
+    }
+
+    /**
+     * Key new tokens are signed with: the most recently activated one whose private key is readable
+     */
+    public LoadedKey getSigningKey() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LoadedKey> ordered = keys.ordered();
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            LoadedKey key = ordered.get(i);
+            if (key.privateKey() != null && !key.activatesAt().isAfter(now)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Public key for a token's kid, reloading from the database (at most every 10s) when it is unknown
+     * @return The key, or null if no stored key has that kid
+     */
+    public PublicKey getVerificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        LoadedKey key = keys.byKid().get(kid);
+        if (key == null && System.currentTimeMillis() - lastReloadMs >= UNKNOWN_KID_RELOAD_INTERVAL_MS) {
+            reload();
+            key = keys.byKid().get(kid);
+        }
+        return key != null ? key.publicKey() : null;
+    }
+
+    /**
+     * Every published key as a JWK (RFC 7517), including keys not yet signing
+     */
+    public List<Map<String, Object>> getJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (LoadedKey key : keys.ordered()) {
+            ECPublicKey publicKey = (ECPublicKey) key.publicKey();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM);
+            jwk.put("kid", key.kid());
+            jwk.put("x", encodeCoordinate(publicKey.getW().getAffineX()));
+            jwk.put("y", encodeCoordinate(publicKey.getW().getAffineY()));
+            jwks.add(jwk);
+        }
+        return jwks;
+    }
+
+    private synchronized void reload() {
+        List<LoadedKey> ordered = new ArrayList<>();
+        Map<String, LoadedKey> byKid = new HashMap<>();
+        for (JwtSigningKey stored : repository.findAllByOrderByActivatesAtAsc()) {
+            try {
+                LoadedKey key = load(stored);
+                ordered.add(key);
+                byKid.put(key.kid(), key);
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.error("Skipping unreadable JWT signing key {}: {}", stored.getKid(), e.getMessage());
+            }
+        }
+        keys = new KeySet(List.copyOf(ordered), Map.copyOf(byKid));
+        lastReloadMs = System.currentTimeMillis();
+    }
+
+    private void createKey(LocalDateTime activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE), random);
+            KeyPair keyPair = generator.generateKeyPair();
+
+            String kid = UUID.randomUUID().toString();
+            JwtSigningKey stored = new JwtSigningKey(null, kid, ALGORITHM,
+                    Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                    encrypt(keyPair.getPrivate().getEncoded(), kid),
+                    LocalDateTime.now(), activatesAt);
+            repository.save(stored);
+            log.info("Created JWT signing key {} (signing from {})", kid, activatesAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not create a JWT signing key", e);
+        }
+        reload();
+    }
+
+    /**
+     * A key can go once a newer key has been signing for longer than a token lives
+     */
+    private void deleteExpiredKeys(LocalDateTime now) {
+        List<LoadedKey> ordered = keys.ordered();
+        LocalDateTime supersededBefore = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(tokenLifetimeMs));
+        boolean deleted = false;
+        for (int i = 0; i < ordered.size() - 1; i++) {
+            if (ordered.get(i + 1).activatesAt().isBefore(supersededBefore)) {
+                log.info("Deleting retired JWT signing key {}", ordered.get(i).kid());
+                repository.deleteById(ordered.get(i).id());
+                deleted = true;
+            }
+        }
+        if (deleted) {
+            reload();
+        }
+    }
+
+    private LoadedKey load(JwtSigningKey stored) throws GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("EC");
+        PublicKey publicKey = keyFactory.generatePublic(
+                new X509EncodedKeySpec(Base64.getDecoder().decode(stored.getPublicKey())));
+
+        PrivateKey privateKey = null;
+        try {
+            privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(stored.getPrivateKey(), stored.getKid())));
+        } catch (GeneralSecurityException e) {
+            // Encrypted under a different secret: still verifies, never signs
+            log.warn("Private part of JWT signing key {} cannot be decrypted: {}", stored.getKid(), e.getMessage());
+        }
+        return new LoadedKey(stored.getId(), stored.getKid(), publicKey, privateKey,
+                stored.getCreatedAt(), stored.getActivatesAt());
+    }
+
+    /**
+     * AES-GCM under a key derived with HKDF from jwt.key-encryption-secret, with the kid as
+     * associated data so a private key cannot be swapped onto another row
+     */
+    private String encrypt(byte[] plaintext, String kid) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] ciphertext = cipher.doFinal(plaintext);
+
+        byte[] stored = Arrays.copyOf(iv, iv.length + ciphertext.length);
+        System.arraycopy(ciphertext, 0, stored, iv.length, ciphertext.length);
+        return Base64.getEncoder().encodeToString(stored);
+    }
+
+    /**
+     * Decrypt a private key, falling back to the legacy wrapping key for keys stored before the
+     * HKDF-derived one; those age out with the next rotations
+     */
+    private byte[] decrypt(String encoded, String kid) throws GeneralSecurityException {
+        try {
+            return decrypt(encoded, kid, encryptionKey);
+        } catch (GeneralSecurityException e) {
+            return decrypt(encoded, kid, legacyEncryptionKey);
+        }
+    }
+
+    private static byte[] decrypt(String encoded, String kid, SecretKey key) throws GeneralSecurityException {
+        byte[] stored = Base64.getDecoder().decode(encoded);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, stored, 0, GCM_IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, GCM_IV_BYTES, stored.length - GCM_IV_BYTES);
+    }
+
+    /**
+     * HKDF-SHA256 (RFC 5869) with an empty salt, expanded to one 32-byte block for AES-256
+     */
+    private static SecretKey hkdf(byte[] secret, String info) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(new byte[32], "HmacSHA256"));
+        byte[] pseudoRandomKey = mac.doFinal(secret);
+
+        mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+        mac.update(info.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 1);
+        return new SecretKeySpec(mac.doFinal(), "AES");
+    }
+
+    private static String encodeCoordinate(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] padded = new byte[COORDINATE_BYTES];
+        // toByteArray may add a sign byte or drop leading zeros
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    /**
+     * A stored key with its parsed key material; privateKey is null if it could not be decrypted
+     */
+    public record LoadedKey(Long id, String kid, PublicKey publicKey, PrivateKey privateKey,
+                            LocalDateTime createdAt, LocalDateTime activatesAt) {
+    }
+
+    private record KeySet(List<LoadedKey> ordered, Map<String, LoadedKey> byKid) {
+    }
+}
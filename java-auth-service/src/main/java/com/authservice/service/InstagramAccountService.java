@@ -0,0 +1,165 @@
+package com.authservice.service;
+
+import com.authservice.config.PlatformEndpoints;
+import com.authservice.entity.Profile;
+import com.authservice.repository.ProfileRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the Instagram business account ID that Graph publishes under.
+ *
+ * The ID is looked up from /me/accounts when the profile is connected and stored on the profile.
+ * Publishing reads it from an in-memory cache (falling back to the stored column), so no Graph
+ * call is needed per publish. The cache entry is tied to the access token it was resolved with,
+ * and a Graph auth error triggers a lazy refresh through {@link #refresh(Profile)}.
+ */
+@Service
+@Slf4j
+public class InstagramAccountService {
+
+    // Graph error code for an invalid or expired access token
+    private static final int GRAPH_INVALID_TOKEN_CODE = 190;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProfileRepository profileRepository;
+    private final PlatformRateLimiter rateLimiter;
+    private final PlatformEndpoints endpoints;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, CachedAccount> accounts = new ConcurrentHashMap<>();
+
+    @Value("${instagram.graph.api.version:v18.0}")
+    private String instagramApiVersion;
+
+    public InstagramAccountService(RestTemplate platformRestTemplate, ProfileRepository profileRepository,
+                                   PlatformRateLimiter rateLimiter, PlatformEndpoints endpoints,
+                                   TransactionTemplate transactionTemplate) {
+        this.restTemplate = platformRestTemplate;
+        this.objectMapper = new ObjectMapper();
+        this.profileRepository = profileRepository;
+        this.rateLimiter = rateLimiter;
+        this.endpoints = endpoints;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Instagram business account ID for the profile, resolved from Graph only if it was never stored
+     */
+    public String getAccountId(Profile profile) {
+        CachedAccount cached = accounts.get(profile.getId());
+        if (cached != null && Objects.equals(cached.accessToken(), profile.getAccessToken())) {
+            return cached.accountId();
+        }
+
+        if (profile.getInstagramAccountId() != null) {
+            accounts.put(profile.getId(), new CachedAccount(profile.getInstagramAccountId(), profile.getAccessToken()));
+            return profile.getInstagramAccountId();
+        }
+        return refresh(profile);
+    }
+
+    /**
+     * Look the account ID up again, store it on the profile and cache it.
+     * The Graph call runs outside any transaction; only the write is transactional.
+     */
+    public String refresh(Profile profile) {
+        accounts.remove(profile.getId());
+        String accountId = lookupAccountId(profile.getAccessToken(), String.valueOf(profile.getId()));
+
+        if (!accountId.equals(profile.getInstagramAccountId())) {
+            log.info("Instagram account ID for profile {} resolved to {}", profile.getId(), accountId);
+            profile.setInstagramAccountId(accountId);
+            storeAccountId(profile.getId(), accountId);
+        }
+        accounts.put(profile.getId(), new CachedAccount(accountId, profile.getAccessToken()));
+        return accountId;
+    }
+
+    /**
+     * Set the ID on the managed profile, so Hibernate updates that one entry in the profiles L2 cache;
+     * a bulk JPQL update would invalidate the whole region
+     */
+    private void storeAccountId(Long profileId, String accountId) {
+        transactionTemplate.executeWithoutResult(status -> profileRepository.findById(profileId)
+                .ifPresent(stored -> stored.setInstagramAccountId(accountId)));
+    }
+
+    /**
+     * Find the Instagram business account linked to the pages the access token manages
+     * @param rateLimitAccount Account key for the rate limiter
+     */
+    public String lookupAccountId(String accessToken, String rateLimitAccount) {
+        String url = endpoints.graphUrl(instagramApiVersion,
+                "me/accounts?fields=instagram_business_account&access_token=" + accessToken);
+
+        JsonNode body = readJson(exchangeAccounts(url, rateLimitAccount).getBody());
+        for (JsonNode page : body.path("data")) {
+            String accountId = page.path("instagram_business_account").path("id").asText(null);
+            if (accountId != null && !accountId.isEmpty()) {
+                return accountId;
+            }
+        }
+        throw new IllegalStateException("No Instagram business account is linked to the connected Facebook pages");
+    }
+
+    /**
+     * Drop the cached ID, e.g. when the profile is reconnected or deleted
+     */
+    public void evict(Long profileId) {
+        accounts.remove(profileId);
+    }
+
+    /**
+     * Whether a Graph error response means the token or account ID is no longer valid
+     */
+    public boolean isGraphAuthError(String responseBody) {
+        try {
+            JsonNode error = objectMapper.readTree(responseBody).path("error");
+            return error.path("code").asInt(-1) == GRAPH_INVALID_TOKEN_CODE
+                    || "OAuthException".equals(error.path("type").asText());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<String> exchangeAccounts(String url, String rateLimitAccount) {
+        rateLimiter.acquire("instagram", "accounts", rateLimitAccount);
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
+            rateLimiter.onGraphResponse("accounts", rateLimitAccount, false, response.getHeaders().toSingleValueMap());
+            return response;
+        } catch (HttpStatusCodeException e) {
+            HttpHeaders responseHeaders = e.getResponseHeaders();
+            rateLimiter.onGraphResponse("accounts", rateLimitAccount,
+                    e.getStatusCode().value() == 429 || rateLimiter.isGraphThrottleError(e.getResponseBodyAsString()),
+                    responseHeaders != null ? responseHeaders.toSingleValueMap() : Map.of());
+            throw e;
+        }
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid /me/accounts response: " + e.getMessage(), e);
+        }
+    }
+
+    private record CachedAccount(String accountId, String accessToken) {
+    }
+}
@@ -0,0 +1,330 @@
+package com.authservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of post media.
+ *
+ * Media is stored once under blobs/{sha256 of content}; index/{sha256 of URL} maps each image URL
+ * to its content hash, so the same campaign image scheduled to many profiles (or retried) is
+ * downloaded once and stored once. The cache is bounded by publishing.media.cache.max-bytes and
+ * evicts least recently used blobs together with the index entries pointing at them. A URL is
+ * downloaded again once its index entry is older than publishing.media.cache.url-ttl-ms, so an
+ * image replaced behind the same URL is picked up. Blobs are read memory-mapped for upload.
+ *
+ * Locks are ReentrantLocks rather than monitors, so virtual threads waiting on a download or
+ * holding the lock across file IO are not pinned to their carrier.
+ */
+@Service
+@Slf4j
+public class MediaCache {
+
+    private final RestTemplate restTemplate;
+
+    // Content hash -> size, in access order for LRU eviction; guarded by blobsLock like the fields below
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    // URL hash -> content hash, so eviction can delete the index entries of a blob
+    private final Map<String, String> urlIndex = new HashMap<>();
+    private long totalBytes;
+    private final ReentrantLock blobsLock = new ReentrantLock();
+    private final Map<String, ReentrantLock> downloadLocks = new ConcurrentHashMap<>();
+
+    @Value("${publishing.media.cache.dir:${java.io.tmpdir}/projectx-media-cache}")
+    private String cacheDir;
+
+    @Value("${publishing.media.cache.max-bytes:2147483648}")
+    private long maxBytes;
+
+    @Value("${publishing.media.max-upload-bytes:536870912}")
+    private long maxUploadBytes;
+
+    @Value("${publishing.media.cache.url-ttl-ms:3600000}")
+    private long urlTtlMs;
+
+    private Path blobDir;
+    private Path indexDir;
+
+    public MediaCache(RestTemplate platformRestTemplate) {
+        this.restTemplate = platformRestTemplate;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        blobDir = Files.createDirectories(Paths.get(cacheDir, "blobs"));
+        indexDir = Files.createDirectories(Paths.get(cacheDir, "index"));
+
+        // Rebuild the LRU order from the blobs' last access times
+        try (Stream<Path> files = Files.list(blobDir)) {
+            List<Path> existing = files
+                    .filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .collect(Collectors.toList());
+            blobsLock.lock();
+            try {
+                for (Path blob : existing) {
+                    long size = Files.size(blob);
+                    blobs.put(blob.getFileName().toString(), size);
+                    totalBytes += size;
+                }
+                loadIndex();
+                evict();
+            } finally {
+                blobsLock.unlock();
+            }
+        }
+        log.info("Media cache at {} holds {} blobs ({} bytes, max {})", cacheDir, blobs.size(), totalBytes, maxBytes);
+    }
+
+    /**
+     * Get the media at a URL, downloading it only if no cached copy exists
+     * @return the cached media, or null if the download was empty
+     */
+    public CachedMedia get(String url) throws IOException {
+        CachedMedia cached = lookup(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        // One download per URL at a time; concurrent callers wait and then hit the cache
+        ReentrantLock lock = downloadLocks.computeIfAbsent(url, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            cached = lookup(url);
+            return cached != null ? cached : download(url);
+        } finally {
+            lock.unlock();
+            downloadLocks.remove(url, lock);
+        }
+    }
+
+    /**
+     * Get the media at a URL like {@link #get(String)}, rejecting media larger than a platform accepts
+     * @param maxBytes Largest media accepted, 0 for no limit beyond the cache's own download limit
+     * @throws IllegalArgumentException if the media is larger than maxBytes
+     */
+    public CachedMedia get(String url, long maxBytes) throws IOException {
+        CachedMedia media = get(url);
+        if (media != null && maxBytes > 0 && media.getSize() > maxBytes) {
+            throw new IllegalArgumentException("Media at " + url + " is " + media.getSize()
+                    + " bytes, the limit is " + maxBytes);
+        }
+        return media;
+    }
+
+    /**
+     * The cached media for a URL, or null if it is not cached; never downloads
+     */
+    public CachedMedia peek(String url) throws IOException {
+        return lookup(url);
+    }
+
+    private CachedMedia lookup(String url) throws IOException {
+        Path indexFile = indexDir.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)));
+        String contentHash;
+        try {
+            if (System.currentTimeMillis() - Files.getLastModifiedTime(indexFile).toMillis() > urlTtlMs) {
+                return null; // Expired: download again, an unchanged image still maps to the same blob
+            }
+            contentHash = Files.readString(indexFile).trim();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        Path blob = blobDir.resolve(contentHash);
+        Long size;
+        blobsLock.lock();
+        try {
+            size = blobs.get(contentHash); // Marks the blob as recently used
+        } finally {
+            blobsLock.unlock();
+        }
+        if (size == null || !Files.exists(blob)) {
+            return null;
+        }
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+        return new CachedMedia(contentHash, blob, size);
+    }
+
+    /**
+     * Stream the URL to a temp file while hashing it, then move it into place under its content hash
+     */
+    private CachedMedia download(String url) throws IOException {
+        Path tempFile = Files.createTempFile(blobDir.getParent(), "download-", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            Long size = restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                try (InputStream body = response.getBody();
+                     OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+                    byte[] buffer = new byte[64 * 1024];
+                    long copied = 0;
+                    int read;
+                    while ((read = body.read(buffer)) != -1) {
+                        copied += read;
+                        if (copied > maxUploadBytes) {
+                            throw new IOException("Media exceeds the " + maxUploadBytes + " byte upload limit");
+                        }
+                        out.write(buffer, 0, read);
+                    }
+                    return copied;
+                }
+            });
+
+            if (size == null || size == 0) {
+                log.warn("Downloaded media is empty from URL: {}", url);
+                return null;
+            }
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            String urlHash = sha256(url.getBytes(StandardCharsets.UTF_8));
+            Path blob = blobDir.resolve(contentHash);
+            blobsLock.lock();
+            try {
+                if (blobs.containsKey(contentHash) && Files.exists(blob)) {
+                    log.info("Media from {} is already cached as {}", url, contentHash);
+                } else {
+                    Files.move(tempFile, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    blobs.put(contentHash, size);
+                    totalBytes += size;
+                }
+                // Written under the lock so eviction never misses an entry for the blob
+                Files.writeString(indexDir.resolve(urlHash), contentHash);
+                urlIndex.put(urlHash, contentHash);
+                evict();
+            } finally {
+                blobsLock.unlock();
+            }
+
+            log.info("Cached {} bytes of media from {} as {}", size, url, contentHash);
+            return new CachedMedia(contentHash, blob, size);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Load the index entries, deleting expired ones and those whose blob is gone.
+     * Caller holds the blobs lock.
+     */
+    private void loadIndex() throws IOException {
+        long expiredBefore = System.currentTimeMillis() - urlTtlMs;
+        try (Stream<Path> files = Files.list(indexDir)) {
+            for (Path indexFile : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                String contentHash = Files.readString(indexFile).trim();
+                if (blobs.containsKey(contentHash) && lastModified(indexFile).toMillis() >= expiredBefore) {
+                    urlIndex.put(indexFile.getFileName().toString(), contentHash);
+                } else {
+                    Files.deleteIfExists(indexFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop least recently used blobs, and the index entries pointing at them, until the cache fits.
+     * Caller holds the blobs lock.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = blobs.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(blobDir.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to evict cached media {}: {}", entry.getKey(), e.getMessage());
+            }
+            urlIndex.entrySet().removeIf(index -> {
+                if (!index.getValue().equals(entry.getKey())) {
+                    return false;
+                }
+                try {
+                    Files.deleteIfExists(indexDir.resolve(index.getKey()));
+                } catch (IOException e) {
+                    log.warn("Failed to delete media index entry {}: {}", index.getKey(), e.getMessage());
+                }
+                return true;
+            });
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            log.debug("Evicted cached media {} ({} bytes)", entry.getKey(), entry.getValue());
+        }
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String sha256(byte[] value) {
+        return HexFormat.of().formatHex(newDigest().digest(value));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A cached media blob
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedMedia {
+
+        private final String contentHash;
+        private final Path path;
+        private final long size;
+
+        public boolean exists() {
+            return Files.exists(path);
+        }
+
+        /**
+         * Map the blob read-only; the mapping stays valid even if the blob is evicted meanwhile
+         */
+        public MappedByteBuffer map() throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+    }
+}
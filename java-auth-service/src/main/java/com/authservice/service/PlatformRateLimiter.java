@@ -0,0 +1,248 @@
+package com.authservice.service;
+
+import com.authservice.config.RateLimitProperties;
+import com.authservice.exception.RateLimitedException;
+import com.authservice.util.TokenBucket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side rate limiting for outbound platform calls.
+ *
+ * Keeps one token bucket per (platform, endpoint, account), seeded from RateLimitProperties and
+ * tightened from the x-rate-limit-* (X) and x-app-usage / x-business-use-case-usage (Graph)
+ * response headers. Callers over the limit wait for a token instead of burning an attempt on a
+ * 429; if the wait would exceed publishing.rate-limit.max-wait a RateLimitedException defers the
+ * publish. Buckets that have refilled completely are dropped every few minutes, so the map only
+ * holds accounts that were active within their rate window.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformRateLimiter {
+
+    // Graph error codes that mean throttling (app, user, business use case, page level)
+    private static final Set<Integer> GRAPH_THROTTLE_CODES = Set.of(4, 17, 32, 613, 80001, 80002);
+
+    private static final long TWITTER_FALLBACK_BACKOFF_MS = 60_000;
+
+    // Start slowing down once Graph reports this share of the budget used
+    private static final int GRAPH_USAGE_SLOWDOWN_PERCENT = 75;
+
+    private static final long PRUNE_INTERVAL_MS = 300_000;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPrunedAt = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Wait for a token for the given platform endpoint and account
+     * @throws RateLimitedException if no token is available within the configured max wait
+     */
+    public void acquire(String platform, String endpoint, String account) {
+        acquire(platform, endpoint, account, Long.MAX_VALUE);
+    }
+
+    /**
+     * Wait for a token, but no longer than the configured max wait nor past the caller's deadline
+     * (epoch millis), so the requests of one publish share its time budget
+     * @throws RateLimitedException right away if no token would be available in time
+     */
+    public void acquire(String platform, String endpoint, String account, long callerDeadline) {
+        TokenBucket bucket = bucket(platform, endpoint, account);
+        long deadline = waitDeadline(callerDeadline);
+
+        while (true) {
+            long waitMs = bucket.tryAcquire();
+            if (waitMs == 0) {
+                return;
+            }
+            if (System.currentTimeMillis() + waitMs > deadline) {
+                throw new RateLimitedException(
+                        "Rate limit reached for " + platform + " " + endpoint + ", retry in " + (waitMs / 1000) + "s",
+                        Duration.ofMillis(waitMs));
+            }
+
+            log.debug("Waiting {} ms for {} {} rate limit", waitMs, platform, endpoint);
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RateLimitedException("Interrupted while waiting for " + platform + " rate limit",
+                        Duration.ofMillis(waitMs));
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire} for the reactive engine: waits on a timer instead of sleeping
+     */
+    public Mono<Void> acquireAsync(String platform, String endpoint, String account, long callerDeadline) {
+        return Mono.defer(() -> acquireAsync(bucket(platform, endpoint, account), platform, endpoint,
+                waitDeadline(callerDeadline)));
+    }
+
+    private Mono<Void> acquireAsync(TokenBucket bucket, String platform, String endpoint, long deadline) {
+        return Mono.defer(() -> {
+            long waitMs = bucket.tryAcquire();
+            if (waitMs == 0) {
+                return Mono.empty();
+            }
+            if (System.currentTimeMillis() + waitMs > deadline) {
+                return Mono.error(new RateLimitedException(
+                        "Rate limit reached for " + platform + " " + endpoint + ", retry in " + (waitMs / 1000) + "s",
+                        Duration.ofMillis(waitMs)));
+            }
+            return Mono.delay(Duration.ofMillis(waitMs)).then(acquireAsync(bucket, platform, endpoint, deadline));
+        });
+    }
+
+    private long waitDeadline(long callerDeadline) {
+        return Math.min(callerDeadline, System.currentTimeMillis() + properties.getMaxWait().toMillis());
+    }
+
+    /**
+     * Adjust the bucket from the rate limit headers of an X API response
+     */
+    public void onTwitterResponse(String endpoint, String account, int statusCode, Map<String, String> headers) {
+        TokenBucket bucket = bucket("x", endpoint, account);
+        Map<String, String> h = caseInsensitive(headers);
+
+        Long remaining = parseLong(h.get("x-rate-limit-remaining"));
+        Long resetSeconds = parseLong(h.get("x-rate-limit-reset"));
+
+        if (remaining != null) {
+            bucket.limitTo(remaining);
+        }
+        if ((statusCode == 429 || (remaining != null && remaining == 0)) && resetSeconds != null) {
+            log.warn("X {} rate limit exhausted, blocked until reset at {}", endpoint, resetSeconds);
+            bucket.blockUntil(resetSeconds * 1000);
+        } else if (statusCode == 429) {
+            // 429 without a reset header: back off briefly and let the next response correct it
+            bucket.blockUntil(System.currentTimeMillis() + TWITTER_FALLBACK_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * Adjust the bucket from the usage headers of a Graph API response
+     * @param throttled true if the response was a 429 or a Graph throttling error
+     */
+    public void onGraphResponse(String endpoint, String account, boolean throttled, Map<String, String> headers) {
+        TokenBucket bucket = bucket("instagram", endpoint, account);
+        Map<String, String> h = caseInsensitive(headers);
+
+        int usagePercent = 0;
+        long regainMinutes = 0;
+
+        JsonNode appUsage = parseJson(h.get("x-app-usage"));
+        if (appUsage != null) {
+            usagePercent = Math.max(usagePercent, maxUsage(appUsage));
+        }
+
+        // {"<business-id>": [{"type": "instagram", "call_count": 12, ..., "estimated_time_to_regain_access": 0}]}
+        JsonNode businessUsage = parseJson(h.get("x-business-use-case-usage"));
+        if (businessUsage != null) {
+            for (JsonNode entries : businessUsage) {
+                for (JsonNode entry : entries) {
+                    usagePercent = Math.max(usagePercent, maxUsage(entry));
+                    regainMinutes = Math.max(regainMinutes, entry.path("estimated_time_to_regain_access").asLong(0));
+                }
+            }
+        }
+
+        if (throttled || usagePercent >= 100) {
+            long backoffMs = regainMinutes > 0
+                    ? Duration.ofMinutes(regainMinutes).toMillis()
+                    : properties.getGraphThrottleBackoff().toMillis();
+            log.warn("Graph {} throttled (usage {}%), blocked for {}s", endpoint, usagePercent, backoffMs / 1000);
+            bucket.blockUntil(System.currentTimeMillis() + backoffMs);
+        } else if (usagePercent >= GRAPH_USAGE_SLOWDOWN_PERCENT) {
+            // Hand out only the share of the bucket that Graph says is left
+            bucket.limitTo(bucket.getCapacity() * (100 - usagePercent) / 100.0);
+        }
+    }
+
+    /**
+     * Whether a Graph error response body is a throttling error
+     */
+    public boolean isGraphThrottleError(String responseBody) {
+        JsonNode body = parseJson(responseBody);
+        return body != null && GRAPH_THROTTLE_CODES.contains(body.path("error").path("code").asInt(-1));
+    }
+
+    private TokenBucket bucket(String platform, String endpoint, String account) {
+        pruneFullBuckets();
+        return buckets.computeIfAbsent(platform + ":" + endpoint + ":" + account, key -> {
+            RateLimitProperties.Limit limit = properties.forEndpoint(platform, endpoint);
+            return new TokenBucket(limit.getCapacity(), limit.getWindow());
+        });
+    }
+
+    /**
+     * Drop buckets that have refilled completely: a full bucket behaves exactly like the new one
+     * created on the next call, so no limit state is lost
+     */
+    private void pruneFullBuckets() {
+        long now = System.currentTimeMillis();
+        long last = lastPrunedAt.get();
+        if (now - last < PRUNE_INTERVAL_MS || !lastPrunedAt.compareAndSet(last, now)) {
+            return;
+        }
+        removeFullBuckets();
+    }
+
+    void removeFullBuckets() {
+        int before = buckets.size();
+        buckets.values().removeIf(TokenBucket::isFull);
+        log.debug("Pruned {} idle rate limit buckets, {} left", before - buckets.size(), buckets.size());
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private int maxUsage(JsonNode usage) {
+        return Math.max(usage.path("call_count").asInt(0),
+                Math.max(usage.path("total_time").asInt(0), usage.path("total_cputime").asInt(0)));
+    }
+
+    private Map<String, String> caseInsensitive(Map<String, String> headers) {
+        Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                if (name != null) {
+                    result.put(name, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    private Long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private JsonNode parseJson(String value) {
+        try {
+            return value != null && !value.isEmpty() ? objectMapper.readTree(value) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
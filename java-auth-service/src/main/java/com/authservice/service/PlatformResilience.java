@@ -0,0 +1,262 @@
+package com.authservice.service;
+
+import com.authservice.config.ResilienceProperties;
+import com.authservice.exception.PlatformApiException;
+import com.authservice.exception.PlatformUnavailableException;
+import com.authservice.exception.PublishDeferredException;
+import com.authservice.publisher.PlatformPublisher;
+import com.authservice.publisher.PlatformPublisherRegistry;
+import com.authservice.publisher.PublisherCapabilities;
+import com.authservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker and bulkhead per platform around outbound publishes.
+ *
+ * The bulkhead caps concurrent calls to one platform (publishing.resilience.*.max-concurrent, or
+ * the limit its PlatformPublisher declares), so a slow platform cannot take every publish thread
+ * from the healthy ones. Each post holds a Quartz / dispatcher worker while its platforms are
+ * called, so the bulkheads are capped to add up to fewer calls than there are workers. The circuit breaker opens after repeated outages (I/O errors, timeouts,
+ * 5xx) and then rejects calls for a while. In both cases the publish is deferred with a
+ * PlatformUnavailableException instead of spending a retry attempt. 4xx responses and deferrals
+ * do not count against the platform's health.
+ *
+ * State is exported as platform.circuit.state (0 closed, 1 open, 2 half-open) and
+ * platform.bulkhead.available gauges.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformResilience {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    private static final Duration SLOT_POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final PlatformPublisherRegistry publisherRegistry;
+
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    @Value("${quartz.thread-count:10}")
+    private int quartzThreadCount;
+
+    @Value("${scheduler.dispatch.worker-threads:10}")
+    private int dispatchWorkerThreads;
+
+    @Value("${scheduler.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${scheduler.virtual-threads.max-concurrency:1000}")
+    private int virtualThreadMaxConcurrency;
+
+    /**
+     * Run a blocking platform call under the platform's circuit breaker and bulkhead
+     * @throws PlatformUnavailableException if the circuit is open or no bulkhead slot frees up in time
+     */
+    public <T> T execute(String platform, Callable<T> call) throws Exception {
+        Guard guard = guard(platform);
+        acquirePermission(guard);
+
+        boolean admitted;
+        try {
+            admitted = guard.bulkhead.tryAcquire(guard.settings.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            guard.breaker.releasePermission();
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        if (!admitted) {
+            guard.breaker.releasePermission();
+            throw bulkheadFull(guard);
+        }
+
+        try {
+            T result = call.call();
+            guard.breaker.onSuccess();
+            return result;
+        } catch (Exception e) {
+            recordError(guard, e);
+            throw e;
+        } finally {
+            guard.bulkhead.release();
+        }
+    }
+
+    /**
+     * Non-blocking variant for the reactive engine: waits for a bulkhead slot on a timer, and a
+     * call cancelled by the publish timeout counts as a failure
+     */
+    public <T> Mono<T> decorate(String platform, Mono<T> call) {
+        return Mono.defer(() -> {
+            Guard guard = guard(platform);
+            acquirePermission(guard);
+
+            AtomicBoolean admitted = new AtomicBoolean();
+            AtomicBoolean finished = new AtomicBoolean();
+            return awaitSlot(guard, System.currentTimeMillis() + guard.settings.getMaxWait().toMillis())
+                    .doOnSuccess(ignored -> admitted.set(true))
+                    .doOnError(e -> guard.breaker.releasePermission())
+                    .doOnCancel(() -> {
+                        if (!admitted.get()) {
+                            guard.breaker.releasePermission();
+                        }
+                    })
+                    .then(Mono.defer(() -> call
+                            .doOnSuccess(result -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    guard.breaker.onSuccess();
+                                }
+                            })
+                            .doOnError(e -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    recordError(guard, e);
+                                }
+                            })
+                            .doOnCancel(() -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    guard.breaker.onFailure();
+                                }
+                            })
+                            .doFinally(signal -> guard.bulkhead.release())));
+        });
+    }
+
+    /**
+     * Current circuit state of a platform
+     */
+    public CircuitBreaker.State getState(String platform) {
+        return guard(platform).breaker.getState();
+    }
+
+    private void acquirePermission(Guard guard) {
+        if (!guard.breaker.tryAcquirePermission()) {
+            long retryMs = Math.max(1000, guard.breaker.remainingOpenMs());
+            throw new PlatformUnavailableException(
+                    "Circuit for " + guard.platform + " is open, retry in " + (retryMs / 1000) + "s",
+                    Duration.ofMillis(retryMs));
+        }
+    }
+
+    private Mono<Void> awaitSlot(Guard guard, long deadline) {
+        return Mono.defer(() -> {
+            if (guard.bulkhead.tryAcquire()) {
+                return Mono.empty();
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return Mono.error(bulkheadFull(guard));
+            }
+            return Mono.delay(SLOT_POLL_INTERVAL).then(awaitSlot(guard, deadline));
+        });
+    }
+
+    private PlatformUnavailableException bulkheadFull(Guard guard) {
+        return new PlatformUnavailableException(
+                "Too many concurrent calls to " + guard.platform + " (" + guard.maxConcurrent + ")",
+                guard.settings.getBulkheadRetryAfter());
+    }
+
+    private void recordError(Guard guard, Throwable error) {
+        if (error instanceof PublishDeferredException) {
+            // Rate limited before the call went out, says nothing about the platform's health
+            guard.breaker.releasePermission();
+        } else if (isOutage(error)) {
+            guard.breaker.onFailure();
+            if (guard.breaker.getState() == CircuitBreaker.State.OPEN) {
+                log.warn("Circuit for {} is open after repeated failures: {}", guard.platform, error.getMessage());
+            }
+        } else {
+            // The platform answered, the request itself was rejected
+            guard.breaker.onSuccess();
+        }
+    }
+
+    /**
+     * Whether an error means the platform is down or degraded rather than that it rejected the request
+     */
+    private boolean isOutage(Throwable error) {
+        // Connection failures arrive as ResourceAccessException / WebClientRequestException wrapping an IOException
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException || cause instanceof HttpServerErrorException) {
+                return true;
+            }
+            if (cause instanceof PlatformApiException apiException) {
+                return apiException.getStatusCode() >= 500;
+            }
+            if (cause instanceof WebClientResponseException responseException) {
+                return responseException.getStatusCode().is5xxServerError();
+            }
+        }
+        return false;
+    }
+
+    private Guard guard(String platform) {
+        String key = "twitter".equals(platform) ? "x" : platform;
+        return guards.computeIfAbsent(key, this::createGuard);
+    }
+
+    private Guard createGuard(String platform) {
+        ResilienceProperties.Platform settings = properties.forPlatform(platform);
+        int configured = settings.getMaxConcurrent() != null
+                ? settings.getMaxConcurrent()
+                : publisherRegistry.find(platform)
+                        .map(PlatformPublisher::getCapabilities)
+                        .map(PublisherCapabilities::getMaxConcurrent)
+                        .orElse(DEFAULT_MAX_CONCURRENT);
+        int maxConcurrent = Math.min(configured, maxConcurrentPerPlatform());
+        if (maxConcurrent < configured) {
+            log.warn("Bulkhead for {} capped at {} concurrent calls (configured {}) to leave workers for other platforms",
+                    platform, maxConcurrent, configured);
+        }
+        Guard guard = new Guard(platform, settings, maxConcurrent,
+                new CircuitBreaker(settings.getFailureRateThreshold(), settings.getSlidingWindowSize(),
+                        settings.getMinimumCalls(), settings.getOpenDuration(), settings.getHalfOpenCalls()),
+                new Semaphore(maxConcurrent));
+
+        Gauge.builder("platform.circuit.state", guard, g -> g.breaker.getState().ordinal())
+                .description("Circuit state per platform: 0 closed, 1 open, 2 half-open")
+                .tag("platform", platform)
+                .register(meterRegistry);
+        Gauge.builder("platform.bulkhead.available", guard, g -> g.bulkhead.availablePermits())
+                .description("Free concurrent call slots per platform")
+                .tag("platform", platform)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    /**
+     * Largest bulkhead that keeps the sum over all platforms below the worker count, so one
+     * platform that hangs cannot hold every Quartz / dispatcher worker
+     */
+    int maxConcurrentPerPlatform() {
+        int workers = virtualThreadsEnabled
+                ? virtualThreadMaxConcurrency
+                : Math.min(quartzThreadCount, dispatchWorkerThreads);
+        int platforms = Math.max(1, publisherRegistry.getSupportedPlatforms().size());
+        return Math.max(1, (workers - 1) / platforms);
+    }
+
+    private record Guard(String platform, ResilienceProperties.Platform settings, int maxConcurrent,
+                         CircuitBreaker breaker, Semaphore bulkhead) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.authservice.service;
+
+import com.authservice.entity.Profile;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a scheduled post needs at fire time that can be resolved ahead of it:
+ * the profiles per platform, the image in the media cache and the Instagram account ID.
+ * Staged by PublishPrefetcher; any field left null is resolved at fire time as usual.
+ */
+@Data
+@NoArgsConstructor
+public class PreparedPublish {
+
+    private Long scheduledPostId;
+    private List<String> platforms;         // Platforms of the post when it was prepared
+    private String imageUrl;                // Image URL the media was downloaded from
+    private MediaCache.CachedMedia media;   // Image in the on-disk media cache, null if none
+    private String instagramAccountId;
+    private Map<String, Profile> profiles = new HashMap<>(); // By platform as listed on the post
+    private LocalDateTime preparedAt;
+}
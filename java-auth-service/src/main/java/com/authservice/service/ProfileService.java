@@ -9,7 +9,9 @@ import com.authservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,17 +25,31 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final UserRepository userRepository;
+    private final InstagramAccountService instagramAccountService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Create or update a profile
+     * Create or update a profile.
+     * Not transactional itself: the Instagram account lookup is a Graph API call, so it runs first
+     * and only the reads and the save share a transaction, which holds no connection while Graph answers.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProfileDTO createOrUpdateProfile(ProfileDTO profileDTO) {
         log.info("Creating or updating profile for user {} and platform {}", 
                 profileDTO.getUserId(), profileDTO.getPlatform());
 
+        PlatformType platform = PlatformType.valueOf(profileDTO.getPlatform().toUpperCase());
+        String instagramAccountId = platform == PlatformType.INSTAGRAM ? resolveInstagramAccountId(profileDTO) : null;
+
+        Profile savedProfile = transactionTemplate.execute(status -> saveProfile(profileDTO, platform, instagramAccountId));
+        instagramAccountService.evict(savedProfile.getId());
+
+        return convertToDTO(savedProfile);
+    }
+
+    private Profile saveProfile(ProfileDTO profileDTO, PlatformType platform, String instagramAccountId) {
         // Find existing profile
-        Optional<Profile> existingProfile = profileRepository
-                .findByUserIdAndPlatform(profileDTO.getUserId(), PlatformType.valueOf(profileDTO.getPlatform().toUpperCase()));
+        Optional<Profile> existingProfile = profileRepository.findByUserIdAndPlatform(profileDTO.getUserId(), platform);
 
         Profile profile;
         if (existingProfile.isPresent()) {
@@ -53,18 +69,37 @@ public class ProfileService {
         profile.setUser(user);
 
         // Update profile fields
-        profile.setPlatform(PlatformType.valueOf(profileDTO.getPlatform().toUpperCase()));
+        profile.setPlatform(platform);
         profile.setUsername(profileDTO.getUsername());
         profile.setProfileUrl(profileDTO.getProfileUrl());
         profile.setAccessToken(profileDTO.getAccessToken());
         profile.setFollowersCount(profileDTO.getFollowersCount());
-        
+        if (platform == PlatformType.INSTAGRAM) {
+            profile.setInstagramAccountId(instagramAccountId);
+        }
 
         // Save profile
         Profile savedProfile = profileRepository.save(profile);
         log.info("Profile saved successfully with ID: {}", savedProfile.getId());
+        return savedProfile;
+    }
 
-        return convertToDTO(savedProfile);
+    /**
+     * Resolve the Instagram business account ID once at connect time so publishing never has to.
+     * A failed lookup is not fatal, the ID is then resolved on first publish.
+     * Rate limited per user, so one user's connects cannot use up another's lookups.
+     */
+    private String resolveInstagramAccountId(ProfileDTO profileDTO) {
+        try {
+            String accountId = instagramAccountService.lookupAccountId(profileDTO.getAccessToken(),
+                    "user-" + profileDTO.getUserId());
+            log.info("Resolved Instagram account ID {} for user {}", accountId, profileDTO.getUserId());
+            return accountId;
+        } catch (Exception e) {
+            log.warn("Could not resolve Instagram account ID for user {}, will retry on first publish: {}",
+                    profileDTO.getUserId(), e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -95,7 +130,10 @@ public class ProfileService {
      */
     public void deleteProfile(Long userId, String platform) {
         log.info("Deleting profile for user ID: {} and platform: {}", userId, platform);
-        profileRepository.deleteByUserIdAndPlatform(userId, PlatformType.valueOf(platform.toUpperCase()));
+        PlatformType platformType = PlatformType.valueOf(platform.toUpperCase());
+        profileRepository.findByUserIdAndPlatform(userId, platformType)
+                .ifPresent(profile -> instagramAccountService.evict(profile.getId()));
+        profileRepository.deleteByUserIdAndPlatform(userId, platformType);
         log.info("Profile deleted successfully for user ID: {} and platform: {}", userId, platform);
     }
 
@@ -122,9 +160,9 @@ public class ProfileService {
     }
 
     /**
-     * Convert Profile entity to ProfileDTO
+     * Convert Profile entity to ProfileDTO (package-private for the JMH benchmarks)
      */
-    private ProfileDTO convertToDTO(Profile profile) {
+    ProfileDTO convertToDTO(Profile profile) {
         ProfileDTO dto = new ProfileDTO();
         dto.setId(profile.getId());
         dto.setUserId(profile.getUser().getId());
@@ -133,6 +171,7 @@ public class ProfileService {
         dto.setProfileUrl(profile.getProfileUrl());
         dto.setAccessToken(profile.getAccessToken());
         dto.setFollowersCount(profile.getFollowersCount());
+        dto.setInstagramAccountId(profile.getInstagramAccountId());
         dto.setAddedAt(profile.getAddedAt());
         dto.setUpdatedAt(profile.getUpdatedAt());
         return dto;
@@ -0,0 +1,181 @@
+package com.authservice.service;
+
+import com.authservice.entity.Profile;
+import com.authservice.entity.ScheduledPost;
+import com.authservice.enums.PlatformType;
+import com.authservice.publisher.PlatformPublisherRegistry;
+import com.authservice.repository.ProfileRepository;
+import com.authservice.repository.ScheduledPostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Look-ahead stage that prepares scheduled posts before they are due.
+ *
+ * Every publishing.prefetch.interval-ms it loads the PENDING posts due within the next
+ * publishing.prefetch.window-minutes, resolves their profiles, warms the media cache with their
+ * image and looks up the Instagram account, and stages the result in memory. At fire time
+ * PostExecutionJob takes the staged payload so only the platform calls remain. The preparation
+ * itself runs on a small pool of its own (publishing.prefetch.threads), so its network calls
+ * never hold up the other @Scheduled jobs sharing Spring's single scheduler thread.
+ *
+ * Staging is per node: a post fired by another node is simply prepared again there.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PublishPrefetcher {
+
+    private final ScheduledPostRepository scheduledPostRepository;
+    private final ProfileRepository profileRepository;
+    private final InstagramAccountService instagramAccountService;
+    private final MediaCache mediaCache;
+    private final PlatformPublisherRegistry publisherRegistry;
+
+    private final Map<Long, PreparedPublish> staged = new ConcurrentHashMap<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${publishing.prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${publishing.prefetch.window-minutes:5}")
+    private long windowMinutes;
+
+    @Value("${publishing.prefetch.batch-size:200}")
+    private int batchSize;
+
+    @Value("${publishing.prefetch.threads:4}")
+    private int threads;
+
+    private ExecutorService prefetchExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        prefetchExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "publish-prefetch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue the upcoming posts that are neither staged nor being prepared; returns straight away
+     */
+    @Scheduled(fixedDelayString = "${publishing.prefetch.interval-ms:30000}")
+    public void prefetch() {
+        if (!enabled) {
+            return;
+        }
+        evictStale();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledPost> upcoming = scheduledPostRepository.findUpcomingPosts(
+                now, now.plusMinutes(windowMinutes), PageRequest.of(0, batchSize));
+
+        int queued = 0;
+        for (ScheduledPost scheduledPost : upcoming) {
+            Long scheduledPostId = scheduledPost.getId();
+            if (staged.containsKey(scheduledPostId) || !inFlight.add(scheduledPostId)) {
+                continue;
+            }
+            prefetchExecutor.execute(() -> {
+                try {
+                    staged.put(scheduledPostId, prepare(scheduledPost));
+                } catch (Exception e) {
+                    // Not fatal: the post is prepared at fire time instead
+                    log.warn("Failed to prefetch scheduled post {}: {}", scheduledPostId, e.getMessage());
+                } finally {
+                    inFlight.remove(scheduledPostId);
+                }
+            });
+            queued++;
+        }
+
+        if (queued > 0) {
+            log.info("Prefetching {} upcoming scheduled posts ({} staged)", queued, staged.size());
+        }
+    }
+
+    /**
+     * Take the staged payload for a post that is about to publish. Returns null if nothing was
+     * staged or the post was edited since (different image or platforms).
+     */
+    public PreparedPublish take(ScheduledPost scheduledPost) {
+        PreparedPublish prepared = staged.remove(scheduledPost.getId());
+        if (prepared == null) {
+            return null;
+        }
+
+        if (!Objects.equals(prepared.getImageUrl(), scheduledPost.getImageUrl())
+                || !Objects.equals(prepared.getPlatforms(), scheduledPost.getPlatforms())) {
+            log.info("Discarding prefetched payload for scheduled post {}, the post changed", scheduledPost.getId());
+            return null;
+        }
+        return prepared;
+    }
+
+    private PreparedPublish prepare(ScheduledPost scheduledPost) throws Exception {
+        PreparedPublish prepared = new PreparedPublish();
+        prepared.setScheduledPostId(scheduledPost.getId());
+        prepared.setPlatforms(scheduledPost.getPlatforms());
+        prepared.setImageUrl(scheduledPost.getImageUrl());
+        prepared.setPreparedAt(LocalDateTime.now());
+
+        boolean needsMedia = false;
+        for (String platformStr : scheduledPost.getPlatforms()) {
+            PlatformType platformType = PlatformType.valueOf(platformStr.toUpperCase());
+            Optional<Profile> profileOpt = profileRepository
+                    .findByUserIdAndPlatform(scheduledPost.getUser().getId(), platformType);
+            if (profileOpt.isEmpty()) {
+                continue;
+            }
+            Profile profile = profileOpt.get();
+            prepared.getProfiles().put(platformStr, profile);
+
+            if (platformType == PlatformType.INSTAGRAM) {
+                prepared.setInstagramAccountId(instagramAccountService.getAccountId(profile));
+            }
+            // Only platforms we upload the bytes to need the image locally, the others fetch the URL
+            needsMedia |= publisherRegistry.find(platformType)
+                    .map(publisher -> publisher.getCapabilities().isMediaUploaded())
+                    .orElse(false);
+        }
+
+        String imageUrl = scheduledPost.getImageUrl();
+        if (needsMedia && imageUrl != null && !imageUrl.isEmpty()) {
+            prepared.setMedia(mediaCache.get(imageUrl));
+        }
+        return prepared;
+    }
+
+    /**
+     * Drop payloads of posts that were rescheduled, deleted or published by another node
+     */
+    private void evictStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(windowMinutes * 2);
+        staged.values().removeIf(prepared -> prepared.getPreparedAt().isBefore(cutoff));
+    }
+}
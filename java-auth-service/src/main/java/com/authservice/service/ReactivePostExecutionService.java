@@ -0,0 +1,44 @@
+package com.authservice.service;
+
+import com.authservice.entity.ScheduledPost;
+import com.authservice.publisher.PlatformPublisher;
+import com.authservice.publisher.PlatformPublisherRegistry;
+import com.authservice.publisher.PublishRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking publishing engine (publishing.engine=reactive).
+ *
+ * Routes like PostExecutionService, through the same registry and validation, but calls each
+ * adapter's publishAsync: a Mono chain on WebClient, so a publish holds no thread while it waits
+ * on the network. The platform's circuit breaker and bulkhead wrap the chain.
+ */
+@Service
+@ConditionalOnProperty(name = "publishing.engine", havingValue = "reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePostExecutionService {
+
+    private final PlatformPublisherRegistry publisherRegistry;
+    private final PostExecutionService postExecutionService;
+    private final PlatformResilience platformResilience;
+
+    /**
+     * Post to a platform for a scheduled post
+     * @param request Post built by the caller, with whatever was staged ahead of fire time
+     * @return Mono of the platform-specific post ID
+     */
+    public Mono<String> postToPlatform(ScheduledPost scheduledPost, String platformStr, PublishRequest request) {
+        return Mono.defer(() -> {
+            PlatformPublisher publisher = publisherRegistry.get(platformStr);
+            log.info("Posting to {} for scheduled post ID: {}", publisher.getDisplayName(), scheduledPost.getId());
+
+            postExecutionService.validate(publisher, request);
+            return platformResilience.decorate(publisher.getPlatform().getValue(), publisher.publishAsync(request));
+        });
+    }
+}
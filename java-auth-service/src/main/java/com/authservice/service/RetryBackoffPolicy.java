@@ -0,0 +1,57 @@
+package com.authservice.service;
+
+import com.authservice.config.RetryProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for publish retries.
+ *
+ * The ceiling for attempt n is initialDelay * multiplier^(n-1), capped at maxDelay. The actual
+ * delay is drawn uniformly from [ceiling/2, ceiling], so posts that failed together during a
+ * platform outage come back spread out instead of as one synchronized burst.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryBackoffPolicy {
+
+    private final RetryProperties retryProperties;
+
+    /**
+     * Delay before the given retry attempt (1-based) for a single platform
+     */
+    public Duration nextDelay(String platform, int attempt) {
+        RetryProperties.Backoff backoff = retryProperties.forPlatform(normalize(platform));
+
+        double initialMs = backoff.getInitialDelay().toMillis();
+        double maxMs = backoff.getMaxDelay().toMillis();
+        double ceilingMs = Math.min(maxMs, initialMs * Math.pow(backoff.getMultiplier(), Math.max(0, attempt - 1)));
+
+        long halfMs = (long) (ceilingMs / 2);
+        long jitterMs = halfMs > 0 ? ThreadLocalRandom.current().nextLong(halfMs + 1) : 0;
+        return Duration.ofMillis(halfMs + jitterMs);
+    }
+
+    /**
+     * Delay before the given retry attempt when several platforms failed: the slowest platform wins
+     */
+    public Duration nextDelay(Collection<String> platforms, int attempt) {
+        Duration delay = Duration.ZERO;
+        for (String platform : platforms) {
+            Duration platformDelay = nextDelay(platform, attempt);
+            if (platformDelay.compareTo(delay) > 0) {
+                delay = platformDelay;
+            }
+        }
+        return delay;
+    }
+
+    private String normalize(String platform) {
+        String value = platform.toLowerCase();
+        return "twitter".equals(value) ? "x" : value;
+    }
+}
@@ -0,0 +1,109 @@
+package com.authservice.service;
+
+import com.authservice.event.ScheduledPostStatusEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory fan-out of scheduled post status events to the SSE clients connected to this node.
+ *
+ * Events are delivered on a dedicated thread so a slow client never holds up a publishing job.
+ * Each node only reaches its own clients.
+ */
+@Service
+@Slf4j
+public class ScheduledPostEventHub {
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduled-post-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${scheduler.events.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    /**
+     * Open an SSE stream of the user's scheduled post status changes
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Set<SseEmitter> emitters = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        emitters.add(emitter);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        log.info("SSE subscriber added for user {} ({} open)", userId, emitters.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onStatusChange(ScheduledPostStatusEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.getUserId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        deliveryExecutor.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(event.getUserId(), emitter, SseEmitter.event()
+                        .name("status")
+                        .id(event.getScheduledPostId() + "-" + event.getTimestamp())
+                        .data(event));
+            }
+        });
+    }
+
+    /**
+     * Keep idle streams open through proxies and drop clients that have gone away
+     */
+    @Scheduled(fixedDelayString = "${scheduler.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        deliveryExecutor.execute(() -> subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE subscriber for user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
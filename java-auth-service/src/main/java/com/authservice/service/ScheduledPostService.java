@@ -1,24 +1,34 @@
 package com.authservice.service;
 
+import com.authservice.dto.BulkScheduledPostResponse;
 import com.authservice.dto.CreateScheduledPostRequest;
 import com.authservice.dto.ScheduledPostResponse;
 import com.authservice.entity.ScheduledPost;
 import com.authservice.entity.User;
+import com.authservice.enums.DispatchMode;
 import com.authservice.enums.PostStatus;
 import com.authservice.job.PostExecutionJob;
 import com.authservice.repository.ScheduledPostRepository;
 import com.authservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +40,17 @@ public class ScheduledPostService {
     private final ScheduledPostRepository scheduledPostRepository;
     private final UserRepository userRepository;
     private final Scheduler scheduler;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    @Value("${scheduler.dispatch.mode:quartz}")
+    private DispatchMode dispatchMode;
+
+    @Value("${scheduler.bulk.max-posts:10000}")
+    private int bulkMaxPosts;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
 
     /**
      * Create a new scheduled post and schedule Quartz job
@@ -54,43 +75,208 @@ public class ScheduledPostService {
         ScheduledPost savedPost = scheduledPostRepository.save(scheduledPost);
         log.info("Saved scheduled post with ID: {}", savedPost.getId());
 
-        // Schedule Quartz job
-        scheduleQuartzJob(savedPost);
+        // Schedule Quartz job (the database dispatcher picks the row up on its own)
+        if (dispatchMode == DispatchMode.QUARTZ) {
+            scheduleQuartzJob(savedPost);
+        }
 
         return convertToResponse(savedPost);
     }
 
+    /**
+     * Queue a post for publishing right away on one platform, for the async immediate-post API.
+     * The caller has already checked the user owns a profile on the platform.
+     */
+    public ScheduledPostResponse enqueueImmediatePost(Long userId, String content, String imageUrl, String platform) {
+        log.info("Queueing immediate post to {} for user {}", platform, userId);
+
+        ScheduledPost scheduledPost = new ScheduledPost();
+        scheduledPost.setUser(userRepository.getReferenceById(userId));
+        scheduledPost.setContent(content);
+        scheduledPost.setPlatforms(List.of(platform));
+        scheduledPost.setScheduledTime(LocalDateTime.now());
+        scheduledPost.setImageUrl(imageUrl);
+        scheduledPost.setStatus(PostStatus.PENDING);
+
+        ScheduledPost savedPost = scheduledPostRepository.save(scheduledPost);
+        log.info("Saved immediate post as scheduled post ID: {}", savedPost.getId());
+
+        // Due now: Quartz fires it on the next acquire, the database dispatcher on its next poll
+        if (dispatchMode == DispatchMode.QUARTZ) {
+            scheduleQuartzJob(savedPost);
+        }
+
+        return convertToResponse(savedPost);
+    }
+
+    /**
+     * Create many scheduled posts at once. Each item is validated on its own; valid items are
+     * inserted with JDBC batching and their Quartz jobs registered in a single scheduleJobs call.
+     */
+    public BulkScheduledPostResponse createScheduledPostsBulk(Long userId, List<CreateScheduledPostRequest> requests) {
+        if (requests.size() > bulkMaxPosts) {
+            throw new RuntimeException("Bulk request has " + requests.size() + " posts, the maximum is " + bulkMaxPosts);
+        }
+        log.info("Creating {} scheduled posts in bulk for user {}", requests.size(), userId);
+
+        // Get user once for the whole batch
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+
+        List<BulkScheduledPostResponse.ItemResult> results = new ArrayList<>(requests.size());
+        List<ScheduledPost> toSave = new ArrayList<>();
+        List<BulkScheduledPostResponse.ItemResult> toSaveResults = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateScheduledPostRequest request = requests.get(i);
+            String error = validate(request);
+            BulkScheduledPostResponse.ItemResult result = new BulkScheduledPostResponse.ItemResult(
+                    i, null, error == null ? "CREATED" : "REJECTED", error);
+            results.add(result);
+            if (error != null) {
+                continue;
+            }
+
+            ScheduledPost scheduledPost = new ScheduledPost();
+            scheduledPost.setUser(user);
+            scheduledPost.setContent(request.getContent());
+            scheduledPost.setPlatforms(request.getPlatforms());
+            scheduledPost.setScheduledTime(request.getScheduledTime());
+            scheduledPost.setImageUrl(request.getImageUrl());
+            scheduledPost.setStatus(PostStatus.PENDING);
+            toSave.add(scheduledPost);
+            toSaveResults.add(result);
+        }
+
+        // Insert in JDBC-batch sized chunks, clearing the persistence context as we go
+        Map<JobDetail, Set<? extends Trigger>> jobs = new HashMap<>();
+        for (int start = 0; start < toSave.size(); start += jdbcBatchSize) {
+            List<ScheduledPost> chunk = toSave.subList(start, Math.min(start + jdbcBatchSize, toSave.size()));
+            scheduledPostRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                ScheduledPost savedPost = chunk.get(i);
+                toSaveResults.get(start + i).setId(savedPost.getId());
+                if (dispatchMode == DispatchMode.QUARTZ) {
+                    jobs.put(buildJobDetail(savedPost), Set.of(buildTrigger(savedPost)));
+                }
+            }
+        }
+
+        // Register all triggers in one call (the database dispatcher picks the rows up on its own)
+        if (!jobs.isEmpty()) {
+            try {
+                scheduler.scheduleJobs(jobs, false);
+            } catch (SchedulerException e) {
+                log.error("Failed to schedule Quartz jobs for {} bulk posts", jobs.size(), e);
+                throw new RuntimeException("Failed to schedule posts", e);
+            }
+        }
+
+        log.info("Bulk created {} scheduled posts for user {}, rejected {}",
+                toSave.size(), userId, requests.size() - toSave.size());
+        return new BulkScheduledPostResponse(toSave.size(), requests.size() - toSave.size(), results);
+    }
+
+    /**
+     * Validate one bulk item, returning the error message or null if valid
+     */
+    private String validate(CreateScheduledPostRequest request) {
+        if (request == null) {
+            return "Post is required";
+        }
+        Set<ConstraintViolation<CreateScheduledPostRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private JobDetail buildJobDetail(ScheduledPost scheduledPost) {
+        return JobBuilder.newJob(PostExecutionJob.class)
+                .withIdentity("post-" + scheduledPost.getId(), "scheduled-posts")
+                .usingJobData("scheduledPostId", scheduledPost.getId())
+                .storeDurably(false)
+                .build();
+    }
+
+    /**
+     * Trigger that fires at the post's scheduled time
+     */
+    private Trigger buildTrigger(ScheduledPost scheduledPost) {
+        Date triggerTime = Date.from(
+                scheduledPost.getScheduledTime().atZone(ZoneId.systemDefault()).toInstant()
+        );
+
+        return TriggerBuilder.newTrigger()
+                .withIdentity("trigger-" + scheduledPost.getId(), "scheduled-posts")
+                .startAt(triggerTime)
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withMisfireHandlingInstructionFireNow())
+                .build();
+    }
+
     /**
      * Schedule Quartz job for the scheduled post
      */
     private void scheduleQuartzJob(ScheduledPost scheduledPost) {
         try {
-            // Create job detail
-            JobDetail jobDetail = JobBuilder.newJob(PostExecutionJob.class)
-                    .withIdentity("post-" + scheduledPost.getId(), "scheduled-posts")
-                    .usingJobData("scheduledPostId", scheduledPost.getId())
-                    .storeDurably(false)
-                    .build();
+            // Schedule the job
+            scheduler.scheduleJob(buildJobDetail(scheduledPost), buildTrigger(scheduledPost));
+            log.info("Scheduled Quartz job for post ID: {} at {}", scheduledPost.getId(), scheduledPost.getScheduledTime());
+
+        } catch (SchedulerException e) {
+            log.error("Failed to schedule Quartz job for post ID: {}", scheduledPost.getId(), e);
+            throw new RuntimeException("Failed to schedule post", e);
+        }
+    }
+
+    /**
+     * Schedule the next attempt of a post that failed and went back to PENDING.
+     * In database mode the dispatcher claims it on its own once nextAttemptAt has passed.
+     */
+    public void scheduleRetry(ScheduledPost scheduledPost) {
+        if (dispatchMode == DispatchMode.DATABASE) {
+            return;
+        }
 
-            // Create trigger (fire at scheduled time)
-            Date triggerTime = Date.from(
-                    scheduledPost.getScheduledTime().atZone(ZoneId.systemDefault()).toInstant()
+        try {
+            JobKey jobKey = new JobKey("post-" + scheduledPost.getId(), "scheduled-posts");
+            Date retryTime = Date.from(
+                    scheduledPost.getNextAttemptAt().atZone(ZoneId.systemDefault()).toInstant()
             );
 
+            // Unique trigger per attempt: the trigger that fired this attempt is still completing, and
+            // rate-limit deferrals requeue without bumping the retry count
             Trigger trigger = TriggerBuilder.newTrigger()
-                    .withIdentity("trigger-" + scheduledPost.getId(), "scheduled-posts")
-                    .startAt(triggerTime)
+                    .withIdentity("retry-" + scheduledPost.getId() + "-" + retryTime.getTime(), "scheduled-posts")
+                    .forJob(jobKey)
+                    .startAt(retryTime)
                     .withSchedule(SimpleScheduleBuilder.simpleSchedule()
                             .withMisfireHandlingInstructionFireNow())
                     .build();
 
-            // Schedule the job
-            scheduler.scheduleJob(jobDetail, trigger);
-            log.info("Scheduled Quartz job for post ID: {} at {}", scheduledPost.getId(), scheduledPost.getScheduledTime());
+            if (scheduler.checkExists(jobKey)) {
+                scheduler.scheduleJob(trigger);
+            } else {
+                JobDetail jobDetail = JobBuilder.newJob(PostExecutionJob.class)
+                        .withIdentity(jobKey)
+                        .usingJobData("scheduledPostId", scheduledPost.getId())
+                        .storeDurably(false)
+                        .build();
+                scheduler.scheduleJob(jobDetail, trigger);
+            }
+            log.info("Scheduled retry {} for post ID: {} at {}",
+                    scheduledPost.getRetryCount(), scheduledPost.getId(), scheduledPost.getNextAttemptAt());
 
         } catch (SchedulerException e) {
-            log.error("Failed to schedule Quartz job for post ID: {}", scheduledPost.getId(), e);
-            throw new RuntimeException("Failed to schedule post", e);
+            log.error("Failed to schedule retry for post ID: {}", scheduledPost.getId(), e);
+            throw new RuntimeException("Failed to schedule retry", e);
         }
     }
 
@@ -134,12 +320,15 @@ public class ScheduledPostService {
         
         boolean timeChanged = !scheduledPost.getScheduledTime().equals(request.getScheduledTime());
         scheduledPost.setScheduledTime(request.getScheduledTime());
+        if (timeChanged) {
+            scheduledPost.setNextAttemptAt(request.getScheduledTime());
+        }
         scheduledPost.setImageUrl(request.getImageUrl());
 
         ScheduledPost savedPost = scheduledPostRepository.save(scheduledPost);
 
         // If scheduled time changed, reschedule Quartz job
-        if (timeChanged) {
+        if (timeChanged && dispatchMode == DispatchMode.QUARTZ) {
             deleteQuartzJob(id);
             scheduleQuartzJob(savedPost);
             log.info("Rescheduled Quartz job for post ID: {}", id);
@@ -186,16 +375,18 @@ public class ScheduledPostService {
     }
 
     /**
-     * Convert ScheduledPost entity to DTO
+     * Convert ScheduledPost entity to DTO (package-private for the JMH benchmarks)
      */
-    private ScheduledPostResponse convertToResponse(ScheduledPost scheduledPost) {
+    ScheduledPostResponse convertToResponse(ScheduledPost scheduledPost) {
         ScheduledPostResponse response = new ScheduledPostResponse();
         response.setId(scheduledPost.getId());
         response.setUserId(scheduledPost.getUser().getId());
         response.setContent(scheduledPost.getContent());
         response.setPlatforms(scheduledPost.getPlatforms());
         response.setStatus(scheduledPost.getStatus());
+        response.setPlatformAttempts(scheduledPost.getPlatformAttempts());
         response.setScheduledTime(scheduledPost.getScheduledTime());
+        response.setNextAttemptAt(scheduledPost.getNextAttemptAt());
         response.setImageUrl(scheduledPost.getImageUrl());
         response.setRetryCount(scheduledPost.getRetryCount());
         response.setMaxRetries(scheduledPost.getMaxRetries());
@@ -218,6 +409,14 @@ public class ScheduledPostService {
             throw new RuntimeException("Cannot trigger post with status: " + scheduledPost.getStatus());
         }
 
+        if (dispatchMode == DispatchMode.DATABASE) {
+            // Make the row due now, the dispatcher claims it on its next poll
+            scheduledPost.setNextAttemptAt(LocalDateTime.now());
+            scheduledPostRepository.save(scheduledPost);
+            log.info("Marked post ID: {} as due for the database dispatcher", id);
+            return;
+        }
+
         // Reschedule to execute immediately
         deleteQuartzJob(id);
         
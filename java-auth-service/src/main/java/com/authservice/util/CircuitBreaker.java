@@ -0,0 +1,131 @@
+package com.authservice.util;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED: calls go through and their outcomes are kept in a sliding window of the last
+ * {@code slidingWindowSize} calls; once {@code minimumCalls} were made and the failure rate
+ * reaches {@code failureRateThreshold} percent the circuit opens. OPEN: calls are rejected for
+ * {@code openDuration}. HALF_OPEN: up to {@code halfOpenCalls} trial calls go through; if they
+ * all succeed the circuit closes, any failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    private final boolean[] outcomes;
+    private int nextIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[Math.max(1, slidingWindowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.openDurationMs = openDuration.toMillis();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * Whether a call may go through now. Every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #releasePermission()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Give back a permission whose call ended without telling anything about the platform's health
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * Milliseconds until an open circuit lets trial calls through, 0 if it is not open
+     */
+    public synchronized long remainingOpenMs() {
+        return state == State.OPEN ? Math.max(0, openedAt + openDurationMs - System.currentTimeMillis()) : 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[nextIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextIndex = (nextIndex + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (newState == State.CLOSED) {
+            recordedCalls = 0;
+            failedCalls = 0;
+            nextIndex = 0;
+        }
+    }
+}
@@ -1,29 +1,101 @@
 package com.authservice.util;
 
+import com.authservice.security.JwtKeyService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies the app's JWTs.
+ *
+ * New tokens are signed ES256 with the current key from JwtKeyService and carry its kid, so other
+ * services can verify them against /.well-known/jwks.json. HS256 tokens signed with jwt.secret
+ * are only accepted with jwt.hs256.accept=true, for the migration window, and
+ * jwt.signing-algorithm=HS256 switches issuing back to them.
+ */
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final JwtKeyService keyService;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.signing-algorithm:ES256}")
+    private String signingAlgorithm;
+
+    // Off unless turned on for the migration: anyone holding jwt.secret could otherwise mint tokens
+    @Value("${jwt.hs256.accept:false}")
+    private boolean acceptHs256;
+
+    // Built once: deriving the key and building a parser per call showed up on every request
+    // HS256 key, kept for tokens issued before ES256
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        // A node issuing HS256 has to accept its own tokens
+        if (SignatureAlgorithm.HS256.getValue().equalsIgnoreCase(signingAlgorithm)) {
+            acceptHs256 = true;
+        }
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares this parameter as a raw JwsHeader
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Key for the algorithm the token declares; anything but HS256 (while accepted) and ES256 is rejected
+     */
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        String algorithm = header.getAlgorithm();
+        if (SignatureAlgorithm.HS256.getValue().equals(algorithm)) {
+            if (!acceptHs256) {
+                throw new UnsupportedJwtException("HS256 tokens are no longer accepted");
+            }
+            return signingKey;
+        }
+        if (JwtKeyService.ALGORITHM.equals(algorithm)) {
+            PublicKey publicKey = keyService.getVerificationKey(header.getKeyId());
+            if (publicKey == null) {
+                throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+            }
+            return publicKey;
+        }
+        throw new UnsupportedJwtException("Unsupported JWT algorithm: " + algorithm);
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(String email, String name, String googleId, Long userId) {
@@ -36,63 +108,30 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration));
+
+        if (SignatureAlgorithm.HS256.getValue().equalsIgnoreCase(signingAlgorithm)) {
+            return builder.signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
+        }
+        JwtKeyService.LoadedKey key = keyService.getSigningKey();
+        if (key == null) {
+            throw new IllegalStateException("No active JWT signing key");
+        }
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .signWith(key.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
-    public Boolean validateToken(String token, String email) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(email) && !isTokenExpired(token));
-    }
-
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
-
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
-    public String getEmailFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("email", String.class));
-    }
-
-    public String getNameFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("name", String.class));
-    }
-
-    public String getGoogleIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("googleId", String.class));
-    }
-
-    public Long getUserIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("userId", Long.class));
-    }
-
-    public Boolean validateToken(String token) {
-        return !isTokenExpired(token);
+    /**
+     * Verify the token's signature and expiry once and return all its claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,162 @@
+package com.authservice.util;
+
+import com.github.scribejava.core.httpclient.HttpClient;
+import com.github.scribejava.core.httpclient.multipart.MultipartPayload;
+import com.github.scribejava.core.httpclient.multipart.MultipartUtils;
+import com.github.scribejava.core.model.OAuthAsyncRequestCallback;
+import com.github.scribejava.core.model.OAuthConstants;
+import com.github.scribejava.core.model.OAuthRequest;
+import com.github.scribejava.core.model.Response;
+import com.github.scribejava.core.model.Verb;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.FileEntity;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ScribeJava HttpClient that executes signed OAuth requests on the shared pooled Apache client,
+ * so X API calls reuse kept-alive connections instead of opening a new HttpURLConnection each time.
+ *
+ * The async variants run the same blocking call on the given executor and complete the callback
+ * and the returned Future with its result. The client and the executor are owned by the Spring
+ * context and are not closed with the adapter.
+ */
+public class PooledOAuthHttpClient implements HttpClient {
+
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService asyncExecutor;
+
+    public PooledOAuthHttpClient(CloseableHttpClient httpClient, ExecutorService asyncExecutor) {
+        this.httpClient = httpClient;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public Response execute(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                            byte[] bodyContents) throws IOException {
+        return execute(userAgent, headers, httpVerb, completeUrl, bodyContents, null);
+    }
+
+    @Override
+    public Response execute(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                            String bodyContents) throws IOException {
+        return execute(userAgent, headers, httpVerb, completeUrl,
+                bodyContents != null ? bodyContents.getBytes(StandardCharsets.UTF_8) : null, null);
+    }
+
+    @Override
+    public Response execute(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                            MultipartPayload bodyContents) throws IOException {
+        // The multipart payload carries its own Content-Type with the boundary
+        Map<String, String> allHeaders = new HashMap<>(headers);
+        allHeaders.putAll(bodyContents.getHeaders());
+        return execute(userAgent, allHeaders, httpVerb, completeUrl,
+                MultipartUtils.getPayload(bodyContents).toByteArray(), null);
+    }
+
+    @Override
+    public Response execute(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                            File bodyContents) throws IOException {
+        return execute(userAgent, headers, httpVerb, completeUrl, null, bodyContents);
+    }
+
+    private Response execute(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                             byte[] body, File file) throws IOException {
+        ClassicRequestBuilder builder = ClassicRequestBuilder.create(httpVerb.name()).setUri(completeUrl);
+        headers.forEach(builder::addHeader);
+        if (userAgent != null) {
+            builder.setHeader(OAuthConstants.USER_AGENT_HEADER_NAME, userAgent);
+        }
+
+        if (httpVerb.isPermitBody() && (body != null || file != null)) {
+            String contentType = headers.getOrDefault(CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
+            builder.removeHeaders(CONTENT_TYPE);
+            builder.setEntity(file != null
+                    ? new FileEntity(file, ContentType.parse(contentType))
+                    : new ByteArrayEntity(body, ContentType.parse(contentType)));
+        }
+
+        ClassicHttpRequest request = builder.build();
+        // Read the body fully so the connection goes straight back to the pool
+        return httpClient.execute(request, response -> {
+            Map<String, String> responseHeaders = new HashMap<>();
+            for (Header header : response.getHeaders()) {
+                responseHeaders.put(header.getName(), header.getValue());
+            }
+            String responseBody = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+            return new Response(response.getCode(), response.getReasonPhrase(), responseHeaders, responseBody);
+        });
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                                      byte[] bodyContents, OAuthAsyncRequestCallback<T> callback,
+                                      OAuthRequest.ResponseConverter<T> converter) {
+        return executeAsync(() -> execute(userAgent, headers, httpVerb, completeUrl, bodyContents), callback, converter);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                                      MultipartPayload bodyContents, OAuthAsyncRequestCallback<T> callback,
+                                      OAuthRequest.ResponseConverter<T> converter) {
+        return executeAsync(() -> execute(userAgent, headers, httpVerb, completeUrl, bodyContents), callback, converter);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                                      String bodyContents, OAuthAsyncRequestCallback<T> callback,
+                                      OAuthRequest.ResponseConverter<T> converter) {
+        return executeAsync(() -> execute(userAgent, headers, httpVerb, completeUrl, bodyContents), callback, converter);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(String userAgent, Map<String, String> headers, Verb httpVerb, String completeUrl,
+                                      File bodyContents, OAuthAsyncRequestCallback<T> callback,
+                                      OAuthRequest.ResponseConverter<T> converter) {
+        return executeAsync(() -> execute(userAgent, headers, httpVerb, completeUrl, bodyContents), callback, converter);
+    }
+
+    private <T> Future<T> executeAsync(Callable<Response> call, OAuthAsyncRequestCallback<T> callback,
+                                       OAuthRequest.ResponseConverter<T> converter) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        asyncExecutor.execute(() -> {
+            T result;
+            try {
+                Response response = call.call();
+                @SuppressWarnings("unchecked")
+                T converted = converter != null ? converter.convert(response) : (T) response;
+                result = converted;
+            } catch (Exception e) {
+                if (callback != null) {
+                    callback.onThrowable(e);
+                }
+                future.completeExceptionally(e);
+                return;
+            }
+            if (callback != null) {
+                callback.onCompleted(result);
+            }
+            future.complete(result);
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        // The pooled client belongs to HttpClientConfig
+    }
+}
@@ -0,0 +1,80 @@
+package com.authservice.util;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding {@code capacity} tokens that refill continuously over {@code window}.
+ * Can be clamped or blocked from the outside when the server reports its own remaining budget.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerMs;
+    private double tokens;
+    private long lastRefillAt;
+    private long blockedUntil;
+
+    public TokenBucket(int capacity, Duration window) {
+        this.capacity = capacity;
+        this.refillPerMs = capacity / (double) Math.max(1, window.toMillis());
+        this.tokens = capacity;
+        this.lastRefillAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Take a token if one is available
+     * @return 0 if a token was taken, otherwise milliseconds until one should be available
+     */
+    public synchronized long tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (now < blockedUntil) {
+            return blockedUntil - now;
+        }
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerMs));
+    }
+
+    /**
+     * Never hold more tokens than the server says are left
+     */
+    public synchronized void limitTo(double remaining) {
+        refill(System.currentTimeMillis());
+        tokens = Math.min(tokens, Math.max(0, remaining));
+    }
+
+    /**
+     * Hand out no tokens until the given time (epoch millis)
+     */
+    public synchronized void blockUntil(long epochMillis) {
+        blockedUntil = Math.max(blockedUntil, epochMillis);
+        tokens = 0;
+        lastRefillAt = Math.max(lastRefillAt, epochMillis);
+    }
+
+    /**
+     * Whether the bucket has refilled completely and is not blocked, i.e. is as good as a new one
+     */
+    public synchronized boolean isFull() {
+        long now = System.currentTimeMillis();
+        if (now < blockedUntil) {
+            return false;
+        }
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    public synchronized double getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillAt) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillAt) * refillPerMs);
+            lastRefillAt = now;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- ScheduledPost ids are pre-allocated 50 at a time from scheduled_posts_id_seq (allocationSize = 50),
+-- so the sequence behind the original SERIAL column must step by 50 as well. Hibernate refuses to
+-- start while the increments differ. Idempotent, and a no-op on schemas Hibernate created itself.
+-- Ids already handed out stay below the next block: nextval returns last_value + 50.
+ALTER SEQUENCE IF EXISTS scheduled_posts_id_seq INCREMENT BY 50;
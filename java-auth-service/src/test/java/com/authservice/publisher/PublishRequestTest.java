@@ -0,0 +1,36 @@
+package com.authservice.publisher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublishRequestTest {
+
+    @Test
+    void abandonBeforeTheFinalCallIsSafeToRetry() {
+        PublishRequest request = new PublishRequest("hello", null, null, null);
+
+        assertThat(request.abandon()).isFalse();
+        assertThatThrownBy(request::markFinalCallSent).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void abandonAfterTheFinalCallReportsItSent() {
+        PublishRequest request = new PublishRequest("hello", null, null, null);
+        request.markFinalCallSent();
+
+        assertThat(request.abandon()).isTrue();
+        assertThat(request.abandon()).isTrue();
+    }
+
+    @Test
+    void finalCallMayBeRetriedBeforeAbandon() {
+        PublishRequest request = new PublishRequest("hello", null, null, null);
+        request.markFinalCallSent();
+
+        // e.g. POST /2/tweets retried once after a 429
+        request.markFinalCallSent();
+        assertThat(request.abandon()).isTrue();
+    }
+}
@@ -0,0 +1,119 @@
+package com.authservice.repository;
+
+import com.authservice.entity.ScheduledPost;
+import com.authservice.entity.User;
+import com.authservice.enums.PostStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ScheduledPostRepositoryTest {
+
+    private static final String ATTEMPTS = "[{\"platform\":\"x\",\"status\":\"PUBLISHED\"}]";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ScheduledPostRepository scheduledPostRepository;
+
+    private ScheduledPost post;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("poster@example.com");
+        user.setName("Poster");
+        entityManager.persist(user);
+
+        post = new ScheduledPost();
+        post.setUser(user);
+        post.setContent("hello");
+        post.setPlatforms(List.of("x", "instagram"));
+        post.setScheduledTime(LocalDateTime.now());
+        post.setStatus(PostStatus.PROCESSING);
+        post.setLeaseOwner("node-a");
+        post.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+        post = entityManager.persistFlushFind(post);
+        entityManager.clear();
+    }
+
+    @Test
+    void writesAttemptsUnderTheCurrentLease() {
+        int updated = scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion(), ATTEMPTS,
+                LocalDateTime.now());
+
+        assertThat(updated).isEqualTo(1);
+        ScheduledPost stored = entityManager.find(ScheduledPost.class, post.getId());
+        assertThat(stored.getPlatformAttemptsJson()).isEqualTo(ATTEMPTS);
+        assertThat(stored.getVersion()).isEqualTo(post.getVersion() + 1);
+    }
+
+    @Test
+    void refusesTheWriteAfterTheLeaseMoved() {
+        requeueTo("node-b");
+
+        int updated = scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion(), ATTEMPTS,
+                LocalDateTime.now());
+
+        assertThat(updated).isZero();
+        assertThat(entityManager.find(ScheduledPost.class, post.getId()).getPlatformAttemptsJson()).isNull();
+    }
+
+    @Test
+    void refusesTheWriteOnAStaleVersion() {
+        // Same owner, but the row was written since this copy was read
+        ScheduledPost stored = entityManager.find(ScheduledPost.class, post.getId());
+        stored.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(10));
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion(), ATTEMPTS,
+                LocalDateTime.now());
+
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    void refusesTheWriteOnceNoLongerProcessing() {
+        ScheduledPost stored = entityManager.find(ScheduledPost.class, post.getId());
+        stored.setStatus(PostStatus.PENDING);
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = scheduledPostRepository.saveAttempts(post.getId(), "node-a", stored.getVersion(), ATTEMPTS,
+                LocalDateTime.now());
+
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    void secondWriteNeedsTheBumpedVersion() {
+        scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion(), ATTEMPTS, LocalDateTime.now());
+
+        assertThat(scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion(), ATTEMPTS,
+                LocalDateTime.now())).isZero();
+        assertThat(scheduledPostRepository.saveAttempts(post.getId(), "node-a", post.getVersion() + 1, ATTEMPTS,
+                LocalDateTime.now())).isEqualTo(1);
+    }
+
+    /**
+     * Simulate the lease reaper / another node taking the post over, which bumps the version
+     */
+    private void requeueTo(String owner) {
+        ScheduledPost stored = entityManager.find(ScheduledPost.class, post.getId());
+        stored.setLeaseOwner(owner);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,162 @@
+package com.authservice.security;
+
+import com.authservice.util.JwtUtil;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-only-not-for-production-use";
+
+    private final JwtUtil jwtUtil = jwtUtil(86_400_000L);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, 100);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bearerTokenAuthenticates() throws Exception {
+        MockFilterChain chain = filter(bearer(token(42L)));
+
+        AuthenticatedUser user = principal();
+        assertThat(user.userId()).isEqualTo(42L);
+        assertThat(user.email()).isEqualTo("user42@example.com");
+        assertThat(user.name()).isEqualTo("User 42");
+        assertThat(user.googleId()).isEqualTo("google-42");
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void cookieTokenAuthenticates() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("auth-token", token(7L)));
+
+        filter(request);
+
+        assertThat(principal().userId()).isEqualTo(7L);
+    }
+
+    @Test
+    void bearerTokenWinsOverCookie() throws Exception {
+        MockHttpServletRequest request = bearer(token(42L));
+        request.setCookies(new Cookie("auth-token", token(7L)));
+
+        filter(request);
+
+        assertThat(principal().userId()).isEqualTo(42L);
+    }
+
+    @Test
+    void expiredTokenContinuesUnauthenticated() throws Exception {
+        String expired = jwtUtil(-60_000L).generateToken("user42@example.com", "User 42", "google-42", 42L);
+
+        MockFilterChain chain = filter(bearer(expired));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void tamperedTokenContinuesUnauthenticated() throws Exception {
+        String token = token(42L);
+
+        filter(bearer(token.substring(0, token.length() - 2) + "xx"));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void requestWithoutTokenIsNotParsed() throws Exception {
+        MockFilterChain chain = filter(new MockHttpServletRequest());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verify(jwtUtil, never()).parseClaims(anyString());
+    }
+
+    @Test
+    void repeatRequestIsServedFromTheCache() throws Exception {
+        String token = token(42L);
+
+        filter(bearer(token));
+        SecurityContextHolder.clearContext();
+        filter(bearer(token));
+
+        assertThat(principal().userId()).isEqualTo(42L);
+        verify(jwtUtil, times(1)).parseClaims(token);
+    }
+
+    @Test
+    void cacheIsSharedBetweenBearerAndCookie() throws Exception {
+        String token = token(42L);
+        MockHttpServletRequest cookieRequest = new MockHttpServletRequest();
+        cookieRequest.setCookies(new Cookie("auth-token", token));
+
+        filter(bearer(token));
+        SecurityContextHolder.clearContext();
+        filter(cookieRequest);
+
+        assertThat(principal().userId()).isEqualTo(42L);
+        verify(jwtUtil, times(1)).parseClaims(token);
+    }
+
+    @Test
+    void invalidTokenIsNotCached() throws Exception {
+        String expired = jwtUtil(-60_000L).generateToken("user42@example.com", "User 42", "google-42", 42L);
+
+        filter(bearer(expired));
+        filter(bearer(expired));
+
+        verify(jwtUtil, times(2)).parseClaims(expired);
+    }
+
+    private MockFilterChain filter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private String token(long userId) {
+        return jwtUtil.generateToken("user" + userId + "@example.com", "User " + userId, "google-" + userId, userId);
+    }
+
+    private static AuthenticatedUser principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    /**
+     * HS256 JwtUtil, so tokens need no JwtKeyService; spied to count verifications
+     */
+    private static JwtUtil jwtUtil(long expirationMs) {
+        JwtUtil jwtUtil = new JwtUtil(null);
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expirationMs);
+        ReflectionTestUtils.setField(jwtUtil, "signingAlgorithm", "HS256");
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return spy(jwtUtil);
+    }
+}
@@ -0,0 +1,188 @@
+package com.authservice.security;
+
+import com.authservice.entity.JwtSigningKey;
+import com.authservice.repository.JwtSigningKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtKeyServiceTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-only-not-for-production-use";
+    private static final long DAY_MS = 86_400_000L;
+
+    // jwt_signing_keys, held in memory
+    private final List<JwtSigningKey> stored = new ArrayList<>();
+    private final JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any())).thenAnswer(invocation -> {
+            JwtSigningKey key = invocation.getArgument(0);
+            key.setId((long) stored.size() + 1);
+            stored.add(key);
+            return key;
+        });
+        when(repository.findAllByOrderByActivatesAtAsc()).thenAnswer(invocation -> stored.stream()
+                .sorted(Comparator.comparing(JwtSigningKey::getActivatesAt))
+                .toList());
+        doAnswer(invocation -> stored.removeIf(key -> key.getId().equals(invocation.getArgument(0))))
+                .when(repository).deleteById(anyLong());
+    }
+
+    @Test
+    void createsASigningKeyOnStartup() {
+        JwtKeyService keyService = keyService(SECRET);
+
+        assertThat(stored).hasSize(1);
+        JwtKeyService.LoadedKey signing = keyService.getSigningKey();
+        assertThat(signing.kid()).isEqualTo(stored.get(0).getKid());
+        assertThat(signing.privateKey()).isNotNull();
+    }
+
+    @Test
+    void rotatedKeyIsPublishedBeforeItSigns() {
+        JwtKeyService keyService = keyService(SECRET);
+        String oldKid = keyService.getSigningKey().kid();
+
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 0L);
+        keyService.rotate();
+
+        assertThat(stored).hasSize(2);
+        String newKid = stored.get(1).getKid();
+        // Signing moves over only after publish-ahead-ms
+        assertThat(keyService.getSigningKey().kid()).isEqualTo(oldKid);
+        assertThat(keyService.getJwks()).extracting(jwk -> jwk.get("kid")).containsExactly(oldKid, newKid);
+        assertThat(keyService.getVerificationKey(newKid)).isNotNull();
+    }
+
+    @Test
+    void oldKidStillVerifiesAfterRotation() {
+        JwtKeyService keyService = keyService(SECRET);
+        JwtKeyService.LoadedKey old = keyService.getSigningKey();
+
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 0L);
+        ReflectionTestUtils.setField(keyService, "publishAheadMs", 0L);
+        keyService.rotate();
+
+        assertThat(keyService.getSigningKey().kid()).isNotEqualTo(old.kid());
+        assertThat(keyService.getVerificationKey(old.kid())).isEqualTo(old.publicKey());
+    }
+
+    @Test
+    void retiredKeyIsDeletedOnceItsTokensExpired() {
+        JwtKeyService keyService = keyService(SECRET);
+        String oldKid = keyService.getSigningKey().kid();
+        // Newer key signing for longer than a token lives
+        stored.get(0).setActivatesAt(LocalDateTime.now().minusDays(3));
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 0L);
+        ReflectionTestUtils.setField(keyService, "publishAheadMs", 0L);
+        keyService.rotate();
+        stored.get(1).setActivatesAt(LocalDateTime.now().minusDays(2));
+
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 604_800_000L);
+        keyService.rotate();
+
+        assertThat(stored).extracting(JwtSigningKey::getKid).doesNotContain(oldKid);
+        assertThat(keyService.getJwks()).extracting(jwk -> jwk.get("kid")).doesNotContain(oldKid);
+    }
+
+    @Test
+    void privateKeyRoundTripsThroughTheDatabase() {
+        JwtKeyService.LoadedKey created = keyService(SECRET).getSigningKey();
+        assertThat(stored.get(0).getPrivateKey())
+                .isNotEqualTo(Base64.getEncoder().encodeToString(created.privateKey().getEncoded()));
+
+        // Another node sharing the secret reads the same key back
+        JwtKeyService.LoadedKey loaded = keyService(SECRET).getSigningKey();
+
+        assertThat(stored).hasSize(1);
+        assertThat(loaded.kid()).isEqualTo(created.kid());
+        assertThat(loaded.privateKey().getEncoded()).isEqualTo(created.privateKey().getEncoded());
+    }
+
+    @Test
+    void keyWrappedUnderAnotherSecretOnlyVerifies() {
+        JwtKeyService.LoadedKey created = keyService(SECRET).getSigningKey();
+
+        JwtKeyService other = keyService("some-other-key-encryption-secret");
+
+        // Cannot sign with the stored key, so it made its own
+        assertThat(stored).hasSize(2);
+        assertThat(other.getSigningKey().kid()).isNotEqualTo(created.kid());
+        assertThat(other.getVerificationKey(created.kid())).isEqualTo(created.publicKey());
+    }
+
+    @Test
+    void privateKeyIsBoundToItsKid() {
+        keyService(SECRET);
+        // Ciphertext moved onto another row no longer decrypts
+        stored.get(0).setKid("swapped");
+
+        JwtKeyService other = keyService(SECRET);
+
+        assertThat(stored).hasSize(2);
+        assertThat(other.getSigningKey().kid()).isNotEqualTo("swapped");
+        assertThat(other.getVerificationKey("swapped")).isNotNull();
+    }
+
+    @Test
+    void jwksDescribesEachPublicKey() {
+        JwtKeyService keyService = keyService(SECRET);
+        ECPublicKey publicKey = (ECPublicKey) keyService.getSigningKey().publicKey();
+
+        List<Map<String, Object>> jwks = keyService.getJwks();
+
+        assertThat(jwks).hasSize(1);
+        Map<String, Object> jwk = jwks.get(0);
+        assertThat(jwk).containsEntry("kty", "EC")
+                .containsEntry("crv", "P-256")
+                .containsEntry("use", "sig")
+                .containsEntry("alg", "ES256")
+                .containsEntry("kid", keyService.getSigningKey().kid())
+                .doesNotContainKey("d");
+        assertThat(coordinate(jwk.get("x"))).isEqualTo(publicKey.getW().getAffineX());
+        assertThat(coordinate(jwk.get("y"))).isEqualTo(publicKey.getW().getAffineY());
+    }
+
+    @Test
+    void unknownKidIsNotVerified() {
+        JwtKeyService keyService = keyService(SECRET);
+
+        assertThat(keyService.getVerificationKey("no-such-kid")).isNull();
+        assertThat(keyService.getVerificationKey(null)).isNull();
+    }
+
+    private JwtKeyService keyService(String keyEncryptionSecret) {
+        JwtKeyService keyService = new JwtKeyService(repository);
+        ReflectionTestUtils.setField(keyService, "keyEncryptionSecret", keyEncryptionSecret);
+        ReflectionTestUtils.setField(keyService, "legacySecret", SECRET);
+        ReflectionTestUtils.setField(keyService, "tokenLifetimeMs", DAY_MS);
+        ReflectionTestUtils.setField(keyService, "rotationIntervalMs", 604_800_000L);
+        ReflectionTestUtils.setField(keyService, "publishAheadMs", 3_600_000L);
+        keyService.init();
+        return keyService;
+    }
+
+    private static BigInteger coordinate(Object encoded) {
+        byte[] bytes = Base64.getUrlDecoder().decode((String) encoded);
+        assertThat(bytes).hasSize(32);
+        return new BigInteger(1, bytes);
+    }
+}
@@ -0,0 +1,116 @@
+package com.authservice.service;
+
+import com.authservice.config.PlatformEndpoints;
+import com.authservice.entity.Profile;
+import com.authservice.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class InstagramAccountServiceTest {
+
+    private static final String ACCOUNTS = "{\"data\":[{\"id\":\"page-1\"},"
+            + "{\"id\":\"page-2\",\"instagram_business_account\":{\"id\":\"ig-123\"}}]}";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final PlatformRateLimiter rateLimiter = mock(PlatformRateLimiter.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private InstagramAccountService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
+                .thenReturn(ResponseEntity.ok(ACCOUNTS));
+
+        service = new InstagramAccountService(restTemplate, profileRepository, rateLimiter,
+                new PlatformEndpoints(), transactionTemplate);
+        ReflectionTestUtils.setField(service, "instagramApiVersion", "v18.0");
+    }
+
+    @Test
+    void refreshSetsTheIdOnTheManagedProfile() {
+        Profile stored = profile(null);
+        when(profileRepository.findById(1L)).thenReturn(Optional.of(stored));
+        Profile detached = profile(null);
+
+        assertThat(service.refresh(detached)).isEqualTo("ig-123");
+
+        assertThat(stored.getInstagramAccountId()).isEqualTo("ig-123");
+        assertThat(detached.getInstagramAccountId()).isEqualTo("ig-123");
+        verify(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void refreshWithAnUnchangedIdWritesNothing() {
+        assertThat(service.refresh(profile("ig-123"))).isEqualTo("ig-123");
+
+        verifyNoInteractions(transactionTemplate, profileRepository);
+    }
+
+    @Test
+    void refreshOfADeletedProfileStillReturnsTheId() {
+        when(profileRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(service.refresh(profile(null))).isEqualTo("ig-123");
+    }
+
+    @Test
+    void storedIdIsServedWithoutGraph() {
+        Profile profile = profile("ig-stored");
+
+        assertThat(service.getAccountId(profile)).isEqualTo("ig-stored");
+        assertThat(service.getAccountId(profile)).isEqualTo("ig-stored");
+
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void cachedIdIsDroppedWhenTheTokenChanges() {
+        when(profileRepository.findById(1L)).thenReturn(Optional.of(profile(null)));
+        Profile profile = profile(null);
+        service.getAccountId(profile);
+
+        profile.setAccessToken("reconnected-token");
+        service.getAccountId(profile);
+        service.getAccountId(profile);
+
+        // Once for the first token; the stored ID then serves the new one
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class));
+        verify(profileRepository, never()).save(any());
+    }
+
+    private static Profile profile(String instagramAccountId) {
+        Profile profile = new Profile();
+        profile.setId(1L);
+        profile.setAccessToken("token");
+        profile.setInstagramAccountId(instagramAccountId);
+        return profile;
+    }
+}
@@ -0,0 +1,97 @@
+package com.authservice.service;
+
+import com.authservice.config.RateLimitProperties;
+import com.authservice.exception.RateLimitedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlatformRateLimiterTest {
+
+    private RateLimitProperties properties;
+    private PlatformRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setMaxWait(Duration.ofSeconds(20));
+        rateLimiter = new PlatformRateLimiter(properties);
+    }
+
+    @Test
+    void remainingHeaderClampsTheBucket() {
+        rateLimiter.onTwitterResponse("tweets", "1", 201, Map.of("x-rate-limit-remaining", "1"));
+
+        rateLimiter.acquire("x", "tweets", "1");
+        assertThatThrownBy(() -> rateLimiter.acquire("x", "tweets", "1", System.currentTimeMillis() + 100))
+                .isInstanceOf(RateLimitedException.class);
+    }
+
+    @Test
+    void exhaustedHeaderBlocksUntilTheReset() {
+        long resetSeconds = System.currentTimeMillis() / 1000 + 600;
+        rateLimiter.onTwitterResponse("tweets", "1", 429, Map.of(
+                "X-Rate-Limit-Remaining", "0",
+                "X-Rate-Limit-Reset", String.valueOf(resetSeconds)));
+
+        assertThatThrownBy(() -> rateLimiter.acquire("x", "tweets", "1"))
+                .isInstanceOf(RateLimitedException.class)
+                .satisfies(e -> assertThat(((RateLimitedException) e).getRetryAfter())
+                        .isGreaterThan(Duration.ofMinutes(9)));
+    }
+
+    @Test
+    void headersOfOneAccountLeaveOthersAlone() {
+        rateLimiter.onTwitterResponse("tweets", "1", 201, Map.of("x-rate-limit-remaining", "0"));
+
+        rateLimiter.acquire("x", "tweets", "2");
+    }
+
+    @Test
+    void failsFastWhenTheWaitWouldOutlastTheDeadline() {
+        properties.getPlatforms().get("x").put("tweets", new RateLimitProperties.Limit(1, Duration.ofSeconds(10)));
+        rateLimiter.acquire("x", "tweets", "1");
+
+        // The next token is 10s away: within max-wait, but past the publish's deadline
+        long startedAt = System.currentTimeMillis();
+        assertThatThrownBy(() -> rateLimiter.acquire("x", "tweets", "1", startedAt + 2000))
+                .isInstanceOf(RateLimitedException.class);
+        assertThat(System.currentTimeMillis() - startedAt).isLessThan(1000);
+    }
+
+    @Test
+    void waitsForATokenThatArrivesBeforeTheDeadline() {
+        properties.getPlatforms().get("x").put("tweets", new RateLimitProperties.Limit(1, Duration.ofMillis(100)));
+        rateLimiter.acquire("x", "tweets", "1");
+
+        rateLimiter.acquire("x", "tweets", "1", System.currentTimeMillis() + 2000);
+    }
+
+    @Test
+    void asyncAcquireFailsFastPastTheDeadline() {
+        properties.getPlatforms().get("x").put("tweets", new RateLimitProperties.Limit(1, Duration.ofSeconds(10)));
+        rateLimiter.acquire("x", "tweets", "1");
+
+        assertThatThrownBy(() -> rateLimiter.acquireAsync("x", "tweets", "1", System.currentTimeMillis() + 2000)
+                .block(Duration.ofSeconds(1)))
+                .isInstanceOf(RateLimitedException.class);
+    }
+
+    @Test
+    void prunesOnlyBucketsThatRefilledCompletely() throws InterruptedException {
+        properties.getPlatforms().get("x").put("tweets", new RateLimitProperties.Limit(1, Duration.ofMillis(50)));
+        rateLimiter.acquire("x", "tweets", "idle");
+        rateLimiter.acquire("x", "tweets", "blocked");
+        rateLimiter.onTwitterResponse("tweets", "blocked", 429, Map.of());
+        Thread.sleep(100);
+
+        rateLimiter.removeFullBuckets();
+
+        assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+    }
+}
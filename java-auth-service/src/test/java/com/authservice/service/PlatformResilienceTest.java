@@ -0,0 +1,166 @@
+package com.authservice.service;
+
+import com.authservice.config.ResilienceProperties;
+import com.authservice.enums.PlatformType;
+import com.authservice.exception.PlatformUnavailableException;
+import com.authservice.publisher.PlatformPublisher;
+import com.authservice.publisher.PlatformPublisherRegistry;
+import com.authservice.publisher.PublisherCapabilities;
+import com.authservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlatformResilienceTest {
+
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformPublisherRegistry publisherRegistry = mock(PlatformPublisherRegistry.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private PlatformResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        properties.getDefaults().setMaxConcurrent(1);
+        properties.getDefaults().setMaxWait(Duration.ofMillis(50));
+        properties.getDefaults().setBulkheadRetryAfter(Duration.ofSeconds(30));
+        when(publisherRegistry.getSupportedPlatforms()).thenReturn(Set.of(PlatformType.X, PlatformType.INSTAGRAM));
+        when(publisherRegistry.find(anyString())).thenReturn(Optional.empty());
+
+        resilience = new PlatformResilience(properties, meterRegistry, publisherRegistry);
+        ReflectionTestUtils.setField(resilience, "quartzThreadCount", 10);
+        ReflectionTestUtils.setField(resilience, "dispatchWorkerThreads", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fullBulkheadDefersTheCall() throws Exception {
+        CountDownLatch release = occupySlot("x");
+
+        assertThatThrownBy(() -> resilience.execute("x", () -> "second"))
+                .isInstanceOf(PlatformUnavailableException.class)
+                .satisfies(e -> assertThat(((PlatformUnavailableException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(30)));
+        release.countDown();
+    }
+
+    @Test
+    void fullBulkheadLeavesOtherPlatformsAlone() throws Exception {
+        CountDownLatch release = occupySlot("x");
+
+        assertThat(resilience.execute("instagram", () -> "posted")).isEqualTo("posted");
+        release.countDown();
+    }
+
+    @Test
+    void fullBulkheadDefersReactiveCallsAfterMaxWait() throws Exception {
+        CountDownLatch release = occupySlot("x");
+
+        assertThatThrownBy(() -> resilience.decorate("x", Mono.just("second")).block(Duration.ofSeconds(1)))
+                .isInstanceOf(PlatformUnavailableException.class);
+        release.countDown();
+    }
+
+    @Test
+    void reactiveCallWaitsForASlot() throws Exception {
+        properties.getDefaults().setMaxWait(Duration.ofSeconds(2));
+        CountDownLatch release = occupySlot("x");
+
+        Mono<String> second = resilience.decorate("x", Mono.just("second"));
+        executor.submit(() -> {
+            Thread.sleep(200);
+            release.countDown();
+            return null;
+        });
+
+        assertThat(second.block(Duration.ofSeconds(5))).isEqualTo("second");
+    }
+
+    @Test
+    void slotIsReturnedAfterTheCall() throws Exception {
+        assertThat(resilience.execute("x", () -> "first")).isEqualTo("first");
+
+        assertThat(resilience.execute("x", () -> "second")).isEqualTo("second");
+    }
+
+    @Test
+    void bulkheadsAreCappedBelowTheWorkerCount() {
+        properties.getDefaults().setMaxConcurrent(null);
+        ReflectionTestUtils.setField(resilience, "quartzThreadCount", 7);
+        PlatformPublisher publisher = mock(PlatformPublisher.class);
+        PublisherCapabilities capabilities = new PublisherCapabilities();
+        capabilities.setMaxConcurrent(10);
+        when(publisher.getCapabilities()).thenReturn(capabilities);
+        when(publisherRegistry.find("x")).thenReturn(Optional.of(publisher));
+
+        resilience.getState("x");
+
+        // 7 workers, 2 platforms: 3 each, so both together still leave a worker free
+        assertThat(meterRegistry.get("platform.bulkhead.available").tag("platform", "x").gauge().value())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCalling() {
+        properties.getDefaults().setSlidingWindowSize(2);
+        properties.getDefaults().setMinimumCalls(2);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> resilience.execute("x", () -> {
+                throw new IOException("connection refused");
+            })).isInstanceOf(IOException.class);
+        }
+        assertThat(resilience.getState("x")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> resilience.execute("x", () -> "posted"))
+                .isInstanceOf(PlatformUnavailableException.class);
+    }
+
+    @Test
+    void rejectedRequestsDoNotOpenTheCircuit() {
+        properties.getDefaults().setSlidingWindowSize(2);
+        properties.getDefaults().setMinimumCalls(2);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> resilience.execute("x", () -> {
+                throw new IllegalArgumentException("too long");
+            })).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(resilience.getState("x")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Start a call that holds the platform's only bulkhead slot until the returned latch is released
+     */
+    private CountDownLatch occupySlot(String platform) throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> resilience.execute(platform, () -> {
+            entered.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+}
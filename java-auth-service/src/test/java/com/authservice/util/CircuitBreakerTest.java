@@ -0,0 +1,110 @@
+package com.authservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    // Opens at 50% failures over the last 4 calls, once 4 calls were made; 2 trial calls when half-open
+    private final CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, OPEN_DURATION, 2);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        call(true);
+        call(false);
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void closedToOpenToHalfOpenToClosed() throws InterruptedException {
+        open();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.remainingOpenMs()).isPositive();
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        // Only halfOpenCalls trial calls at a time
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failedTrialCallOpensAgain() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void releasedTrialPermissionIsHandedOutAgain() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.releasePermission();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void closingResetsTheWindow() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        breaker.tryAcquirePermission();
+        breaker.onSuccess();
+        breaker.tryAcquirePermission();
+        breaker.onSuccess();
+
+        // The failures from before the circuit opened no longer count
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void open() {
+        call(false);
+        call(true);
+        call(false);
+        // Rate is checked on failures: 2 of 4 failed
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void call(boolean failed) {
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        if (failed) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.authservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void handsOutCapacityThenReportsWaitUntilRefill() {
+        TokenBucket bucket = new TokenBucket(2, Duration.ofMillis(200));
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        // One token refills every 100 ms
+        assertThat(bucket.tryAcquire()).isBetween(1L, 100L);
+    }
+
+    @Test
+    void refillsOverTheWindow() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, Duration.ofMillis(200));
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        long waitMs = bucket.tryAcquire();
+        Thread.sleep(waitMs + 10);
+
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    void limitToClampsToTheServersRemainingBudget() {
+        TokenBucket bucket = new TokenBucket(100, Duration.ofMinutes(15));
+
+        bucket.limitTo(1);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void limitToNeverRaisesTheBalance() {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofMinutes(15));
+        bucket.tryAcquire();
+
+        bucket.limitTo(50);
+
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void blockUntilHoldsTokensUntilTheReset() {
+        TokenBucket bucket = new TokenBucket(100, Duration.ofMinutes(15));
+        long resetAt = System.currentTimeMillis() + 500;
+
+        bucket.blockUntil(resetAt);
+
+        assertThat(bucket.tryAcquire()).isBetween(1L, 500L);
+        assertThat(bucket.isFull()).isFalse();
+    }
+
+    @Test
+    void isFullOnlyOnceCompletelyRefilled() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, Duration.ofMillis(100));
+        assertThat(bucket.isFull()).isTrue();
+
+        bucket.tryAcquire();
+        assertThat(bucket.isFull()).isFalse();
+
+        Thread.sleep(80);
+        assertThat(bucket.isFull()).isTrue();
+    }
+}